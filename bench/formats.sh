@@ -0,0 +1,9 @@
+#!/usr/bin/env bash
+# Payload size and serialization cost of JSON vs Smile vs CBOR, raw and with gzip/zstd.
+#
+#   bench/formats.sh [--pages=5,200] [--seed=path/to/articles.json]
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+${MVN:-sh ./mvnw} -q -B -DskipTests compile dependency:build-classpath -Dmdep.outputFile=target/classpath.txt
+java -cp "target/classes:$(cat target/classpath.txt)" com.news.perf.FormatBenchmark "$@"
@@ -0,0 +1,37 @@
+#!/usr/bin/env bash
+# Compares sustainable concurrency of the platform thread pool vs virtual threads.
+# Both runs use the offline "perf" profile (in-memory repository + stub LLM) and need a Java 21 JDK.
+#
+#   JAVA_HOME=/path/to/jdk-21 bench/virtual-threads.sh [concurrency levels...]
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+if [ $# -gt 0 ]; then LEVELS=("$@"); else LEVELS=(200 1000 2000); fi
+DURATION=${DURATION:-30s}
+WARMUP=${WARMUP:-10s}
+LLM_LATENCY_MS=${LLM_LATENCY_MS:-200}
+MIX=${MIX:-category:25,source:12,score:8,search:15,nearby:8,events:20,trending:10,analyze:2}
+PORT=${PORT:-8080}
+JAR=target/Contextual-News-Api-0.0.1-SNAPSHOT.jar
+
+${MVN:-sh ./mvnw} -q -B -Pjava21 -DskipTests package
+
+run_mode() {
+  local profiles=$1
+  java -jar "$JAR" --server.port="$PORT" --spring.profiles.active="$profiles" \
+       --app.perf.llm.latencyMs="$LLM_LATENCY_MS" --app.perf.llm.jitterMs=0 \
+       --app.trending.log.dir=target/bench-trending \
+       > "target/bench-${profiles//,/-}.log" 2>&1 &
+  local pid=$!
+  until curl -sf "http://localhost:$PORT/actuator/health" > /dev/null; do sleep 1; done
+  for c in "${LEVELS[@]}"; do
+    echo "== $profiles, $c concurrent clients"
+    java -cp target/classes com.news.perf.LoadDriver --base-url="http://localhost:$PORT" \
+         --threads="$c" --mix="$MIX" --warmup="$WARMUP" --duration="$DURATION" | grep -E "^(endpoint|ALL|error)"
+  done
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+}
+
+run_mode perf
+run_mode perf,virtual
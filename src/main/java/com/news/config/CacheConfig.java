@@ -1,18 +1,86 @@
 package com.news.config;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.news.service.CorpusVersionService;
+import com.news.service.TrendingService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
 import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.cache.interceptor.SimpleKey;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 
 @Configuration
 @EnableCaching
 public class CacheConfig {
     @Bean
-    public CacheManager cacheManager() {
+    public CacheManager cacheManager(MeterRegistry meterRegistry,
+                                     @Value("${app.cache.feeds.maxEntries:10000}") long maxFeedEntries,
+                                     @Value("${app.trending.cacheTtlSeconds:10}") long trendingTtlSeconds,
+                                     @Value("${app.trending.cacheMaxEntries:10000}") long maxTrendingEntries) {
 // For simplicity using in-memory cache; can switch to Redis easily.
-        return new ConcurrentMapCacheManager("trending");
+        return new ConcurrentMapCacheManager(TrendingService.TRENDING_CACHE, CorpusVersionService.FEEDS_CACHE,
+                CorpusVersionService.SUMMARIES_CACHE) {
+            @Override
+            protected Cache createConcurrentMapCache(String name) {
+                // both are keyed by client-controlled params; trending also goes stale with every event
+                ConcurrentMap<Object, Object> store = switch (name) {
+                    case CorpusVersionService.FEEDS_CACHE -> Caffeine.newBuilder()
+                            .maximumSize(maxFeedEntries).build().asMap();
+                    case TrendingService.TRENDING_CACHE -> Caffeine.newBuilder()
+                            .maximumSize(maxTrendingEntries)
+                            .expireAfterWrite(Duration.ofSeconds(trendingTtlSeconds))
+                            .build().asMap();
+                    default -> new ConcurrentHashMap<>(256);
+                };
+                return new MeteredConcurrentMapCache(name, store, isAllowNullValues(), meterRegistry);
+            }
+        };
+    }
+
+    /** Keys entries by (method, arguments, corpus version) so a reload can never serve a stale feed. */
+    @Bean
+    public KeyGenerator corpusVersionKeyGenerator(CorpusVersionService corpusVersion) {
+        return (target, method, params) -> {
+            Object[] parts = Arrays.copyOf(params, params.length + 2);
+            parts[params.length] = method.getName();
+            parts[params.length + 1] = corpusVersion.current().version();
+            return new SimpleKey(parts);
+        };
+    }
+
+    /**
+     * Micrometer's binder for ConcurrentMapCache only reports size, so hits and misses are counted here
+     * under the standard {@code cache.gets} meter to get a hit ratio.
+     */
+    static class MeteredConcurrentMapCache extends ConcurrentMapCache {
+        private final Counter hits;
+        private final Counter misses;
+
+        MeteredConcurrentMapCache(String name, ConcurrentMap<Object, Object> store, boolean allowNullValues,
+                                  MeterRegistry meterRegistry) {
+            super(name, store, allowNullValues);
+            this.hits = meterRegistry.counter("cache.gets", "cache", name, "cache.manager", "cacheManager", "result", "hit");
+            this.misses = meterRegistry.counter("cache.gets", "cache", name, "cache.manager", "cacheManager", "result", "miss");
+        }
+
+        @Override
+        protected Object lookup(Object key) {
+            Object value = super.lookup(key);
+            (value != null ? hits : misses).increment();
+            return value;
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,45 @@
 package com.news.config;
 
+import com.news.model.NewsArticle;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
 
+@Slf4j
 @Configuration
-public class MongoConfig { }
\ No newline at end of file
+@Profile("!perf")
+public class MongoConfig {
+
+    private final MongoTemplate mongoTemplate;
+    private final AsyncTaskExecutor executor;
+
+    public MongoConfig(MongoTemplate mongoTemplate, @Qualifier("applicationTaskExecutor") AsyncTaskExecutor executor) {
+        this.mongoTemplate = mongoTemplate;
+        this.executor = executor;
+    }
+
+    /**
+     * Creates the {@code @Indexed} indexes of {@link NewsArticle} (notably {@code lsh_bands} for duplicate lookups)
+     * in the background, so startup does not wait for, or fail without, a reachable MongoDB.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        executor.execute(() -> {
+            try {
+                IndexOperations ops = mongoTemplate.indexOps(NewsArticle.class);
+                new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext())
+                        .resolveIndexFor(NewsArticle.class)
+                        .forEach(ops::ensureIndex);
+            } catch (Exception ex) {
+                log.warn("Could not create news_articles indexes: {}", ex.toString());
+            }
+        });
+    }
+}
@@ -0,0 +1,45 @@
+package com.news.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.OptionalLong;
+
+/**
+ * Stamps every request with an absolute deadline ({@code app.request.timeoutMs} from arrival) so that
+ * work fanned out on behalf of the request can stop waiting once the caller has given up.
+ */
+@Component
+public class RequestDeadlineFilter extends OncePerRequestFilter {
+
+    private static final String DEADLINE_ATTRIBUTE = RequestDeadlineFilter.class.getName() + ".DEADLINE";
+
+    private final long timeoutNanos;
+
+    public RequestDeadlineFilter(@Value("${app.request.timeoutMs:10000}") long timeoutMs) {
+        this.timeoutNanos = timeoutMs * 1_000_000L;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        request.setAttribute(DEADLINE_ATTRIBUTE, System.nanoTime() + timeoutNanos);
+        chain.doFilter(request, response);
+    }
+
+    /** Deadline of the request bound to the current thread, in {@link System#nanoTime()} units. */
+    public static OptionalLong currentDeadline() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) return OptionalLong.empty();
+        Object deadline = attributes.getAttribute(DEADLINE_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        return deadline instanceof Long l ? OptionalLong.of(l) : OptionalLong.empty();
+    }
+}
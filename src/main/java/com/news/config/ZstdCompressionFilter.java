@@ -0,0 +1,297 @@
+package com.news.config;
+
+import com.github.luben.zstd.ZstdOutputStream;
+import com.github.luben.zstd.util.Native;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.List;
+
+/**
+ * zstd response compression for clients that send {@code Accept-Encoding: zstd}. Tomcat only offers gzip
+ * ({@code server.compression.*}); it leaves alone responses that already have a {@code Content-Encoding},
+ * so clients accepting both get zstd and the rest fall back to gzip. Compression is decided on the first
+ * body write, once the content type is known, and works for streamed responses since flushes pass through.
+ * When the chain fails the frame is left unfinished and the response stream open, so a client of a response
+ * that was already committed sees a broken transfer rather than a complete but truncated body.
+ */
+@Slf4j
+@Component
+public class ZstdCompressionFilter extends OncePerRequestFilter {
+
+    private final boolean enabled;
+    private final int level;
+    private final List<MediaType> mimeTypes;
+
+    public ZstdCompressionFilter(@Value("${app.compression.zstd.enabled:true}") boolean enabled,
+                                 @Value("${app.compression.zstd.level:3}") int level,
+                                 @Value("${server.compression.mime-types:application/json}") List<MediaType> mimeTypes) {
+        this.enabled = enabled && nativeLibraryLoads();
+        this.level = level;
+        this.mimeTypes = mimeTypes;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || "HEAD".equals(request.getMethod()) || !acceptsZstd(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ZstdResponse wrapped = new ZstdResponse(response);
+        try {
+            chain.doFilter(request, wrapped);
+        } catch (Throwable ex) {
+            wrapped.abort();
+            throw ex;
+        }
+        wrapped.finish();
+    }
+
+    static boolean acceptsZstd(String acceptEncoding) {
+        if (acceptEncoding == null) return false;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (!parts[0].trim().equalsIgnoreCase("zstd")) continue;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.startsWith("q=") && !acceptable(param.substring(2))) return false;
+            }
+            return true;
+        }
+        return false;
+    }
+
+    // a malformed q-value makes the coding unacceptable rather than failing the request
+    private static boolean acceptable(String qvalue) {
+        try {
+            return Double.parseDouble(qvalue.trim()) > 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static boolean nativeLibraryLoads() {
+        try {
+            Native.load();
+            return true;
+        } catch (Throwable t) {
+            log.warn("zstd native library unavailable, responses will not be zstd-compressed: {}", t.toString());
+            return false;
+        }
+    }
+
+    private class ZstdResponse extends HttpServletResponseWrapper {
+        private long contentLength = -1;
+        private ServletOutputStream stream;
+        private PrintWriter writer;
+        private ZstdOutputStream zstd;
+        private GatedOutputStream gate;
+        // Content-Encoding: zstd has been set; it survives resetBuffer(), so later bodies must be compressed too
+        private boolean encoded;
+
+        ZstdResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        // held back until the first write shows whether the body is compressed
+        @Override
+        public void setContentLength(int len) {
+            contentLength = len;
+        }
+
+        @Override
+        public void setContentLengthLong(long len) {
+            contentLength = len;
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) contentLength = Long.parseLong(value);
+            else super.setHeader(name, value);
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) contentLength = Long.parseLong(value);
+            else super.addHeader(name, value);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (writer != null) throw new IllegalStateException("getWriter() has already been called");
+            return stream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                if (stream != null) throw new IllegalStateException("getOutputStream() has already been called");
+                writer = new PrintWriter(new OutputStreamWriter(stream(), getCharacterEncoding()));
+            }
+            return writer;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) writer.flush();
+            if (zstd != null) zstd.flush();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void reset() {
+            super.reset();
+            discard();
+            contentLength = -1;
+            encoded = false;
+        }
+
+        @Override
+        public void resetBuffer() {
+            super.resetBuffer();
+            discard();
+        }
+
+        void finish() throws IOException {
+            if (writer != null) writer.flush();
+            if (zstd != null) zstd.close();
+            else if (stream == null && contentLength >= 0) super.setContentLengthLong(contentLength);
+        }
+
+        void abort() {
+            discard();
+        }
+
+        // Frees the native context without sending the frame epilogue or closing the servlet stream;
+        // the next write starts over.
+        private void discard() {
+            if (zstd != null) {
+                gate.shut();
+                try {
+                    zstd.close();
+                } catch (IOException | RuntimeException e) {
+                    log.debug("Could not release zstd stream: {}", e.toString());
+                }
+            }
+            stream = null;
+            writer = null;
+            zstd = null;
+            gate = null;
+        }
+
+        private ServletOutputStream stream() throws IOException {
+            if (stream != null) return stream;
+            ServletOutputStream raw = super.getOutputStream();
+            if (!encoded && !compressible()) {
+                if (contentLength >= 0) super.setContentLengthLong(contentLength);
+                return stream = raw;
+            }
+            if (!encoded) {
+                super.setHeader(HttpHeaders.CONTENT_ENCODING, "zstd");
+                super.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+                encoded = true;
+            }
+            gate = new GatedOutputStream(raw);
+            zstd = new ZstdOutputStream(gate, level);
+            return stream = new DelegatingServletOutputStream(raw, zstd);
+        }
+
+        private boolean compressible() {
+            if (getStatus() == SC_NO_CONTENT || getStatus() == SC_NOT_MODIFIED) return false;
+            if (containsHeader(HttpHeaders.CONTENT_ENCODING) || getContentType() == null) return false;
+            MediaType type = MediaType.parseMediaType(getContentType());
+            return mimeTypes.stream().anyMatch(m -> m.includes(type));
+        }
+    }
+
+    /** Passes everything to the servlet stream until shut, then drops writes, flushes and close. */
+    private static class GatedOutputStream extends OutputStream {
+        private final OutputStream raw;
+        private boolean open = true;
+
+        GatedOutputStream(OutputStream raw) {
+            this.raw = raw;
+        }
+
+        void shut() {
+            open = false;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (open) raw.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (open) raw.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (open) raw.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (open) raw.close();
+        }
+    }
+
+    private static class DelegatingServletOutputStream extends ServletOutputStream {
+        private final ServletOutputStream raw;
+        private final OutputStream target;
+
+        DelegatingServletOutputStream(ServletOutputStream raw, OutputStream target) {
+            this.raw = raw;
+            this.target = target;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            target.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            target.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            target.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            target.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return raw.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener listener) {
+            raw.setWriteListener(listener);
+        }
+    }
+}
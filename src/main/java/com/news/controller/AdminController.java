@@ -4,8 +4,10 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.news.model.NewsArticle;
 import com.news.service.NewsService;
+import com.news.service.TrendingService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
@@ -22,6 +24,7 @@ import java.util.List;
 public class AdminController {
 
     private final NewsService newsService;
+    private final TrendingService trendingService;
     private final ObjectMapper objectMapper;  // inject Spring Boot mapper
 
     @PostMapping(value = "/load", consumes = {"multipart/form-data"})
@@ -31,7 +34,12 @@ public class AdminController {
                 new TypeReference<List<NewsArticle>>() {
                 }
         );
-        newsService.loadArticles(articles);
-        return ResponseEntity.ok("Loaded " + articles.size() + " articles");
+        int duplicates = newsService.loadArticles(articles);
+        return ResponseEntity.ok("Loaded " + articles.size() + " articles (" + duplicates + " near-duplicates of existing stories)");
+    }
+
+    @GetMapping(value = "/trending/summary", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<byte[]> trendingSummary() throws IOException {
+        return ResponseEntity.ok(trendingService.exportSummary());
     }
 }
\ No newline at end of file
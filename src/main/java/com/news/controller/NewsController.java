@@ -1,10 +1,15 @@
 package com.news.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.news.dto.LlmExtraction;
 import com.news.dto.NewsResponse;
 import com.news.dto.TrendingEvent;
 import com.news.exception.ApiError;
+import com.news.exception.InvalidRequestException;
+import com.news.model.CorpusVersion;
 import com.news.model.NewsArticle;
+import com.news.service.CorpusVersionService;
 import com.news.service.NewsService;
 import com.news.service.TrendingService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -12,14 +17,25 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 
 @RestController
@@ -32,6 +48,10 @@ public class NewsController {
     private NewsService newsService;
     @Autowired
     private TrendingService trendingService;
+    @Autowired
+    private CorpusVersionService corpusVersion;
+    @Autowired
+    private ObjectMapper objectMapper;
 
 
     // --------- LLM route to decide intent (optional helper) ---------
@@ -53,14 +73,17 @@ public class NewsController {
     @Operation(summary = "Fetch news by category", description = "Returns paginated news articles for a given category")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Successful retrieval"),
+            @ApiResponse(responseCode = "304", description = "Not modified since the corpus version in If-None-Match / If-Modified-Since"),
             @ApiResponse(responseCode = "400", description = "Invalid request", content = @Content(schema = @Schema(implementation = ApiError.class))),
             @ApiResponse(responseCode = "404", description = "No articles found", content = @Content(schema = @Schema(implementation = ApiError.class))),
             @ApiResponse(responseCode = "500", description = "Server error", content = @Content(schema = @Schema(implementation = ApiError.class)))
     })
     public ResponseEntity<NewsResponse> byCategory(@RequestParam String name,
                                                    @RequestParam(defaultValue = "0") int page,
-                                                   @RequestParam(defaultValue = "20") int size) {
-        return ResponseEntity.ok(newsService.byCategory(name, page, size));
+                                                   @RequestParam(defaultValue = "20") int size,
+                                                   @RequestParam(defaultValue = "false") boolean collapse,
+                                                   WebRequest request) {
+        return versioned(request, () -> newsService.byCategory(name, page, size, collapse));
     }
 
 
@@ -68,13 +91,16 @@ public class NewsController {
     @Operation(summary = "Fetch news by source", description = "Returns paginated news articles from a specific source")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Successful retrieval"),
+            @ApiResponse(responseCode = "304", description = "Not modified since the corpus version in If-None-Match / If-Modified-Since"),
             @ApiResponse(responseCode = "404", description = "No articles found for given source", content = @Content(schema = @Schema(implementation = ApiError.class))),
             @ApiResponse(responseCode = "500", description = "Server error", content = @Content(schema = @Schema(implementation = ApiError.class)))
     })
     public ResponseEntity<NewsResponse> bySource(@RequestParam String name,
                                                  @RequestParam(defaultValue = "0") int page,
-                                                 @RequestParam(defaultValue = "20") int size) {
-        return ResponseEntity.ok(newsService.bySource(name, page, size));
+                                                 @RequestParam(defaultValue = "20") int size,
+                                                 @RequestParam(defaultValue = "false") boolean collapse,
+                                                 WebRequest request) {
+        return versioned(request, () -> newsService.bySource(name, page, size, collapse));
     }
 
 
@@ -82,13 +108,16 @@ public class NewsController {
     @Operation(summary = "Fetch news by relevance score", description = "Fetches news above a certain relevance score threshold")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Successful retrieval"),
+            @ApiResponse(responseCode = "304", description = "Not modified since the corpus version in If-None-Match / If-Modified-Since"),
             @ApiResponse(responseCode = "400", description = "Invalid threshold or parameters", content = @Content(schema = @Schema(implementation = ApiError.class))),
             @ApiResponse(responseCode = "500", description = "Server error", content = @Content(schema = @Schema(implementation = ApiError.class)))
     })
     public ResponseEntity<NewsResponse> byScore(@RequestParam(defaultValue = "0.7") double threshold,
                                                 @RequestParam(defaultValue = "0") int page,
-                                                @RequestParam(defaultValue = "20") int size) {
-        return ResponseEntity.ok(newsService.byScore(threshold, page, size));
+                                                @RequestParam(defaultValue = "20") int size,
+                                                @RequestParam(defaultValue = "false") boolean collapse,
+                                                WebRequest request) {
+        return versioned(request, () -> newsService.byScore(threshold, page, size, collapse));
     }
 
 
@@ -101,8 +130,9 @@ public class NewsController {
     })
     public ResponseEntity<NewsResponse> search(@RequestParam String query,
                                                @RequestParam(defaultValue = "0") int page,
-                                               @RequestParam(defaultValue = "20") int size) {
-        return ResponseEntity.ok(newsService.search(query, page, size));
+                                               @RequestParam(defaultValue = "20") int size,
+                                               @RequestParam(defaultValue = "false") boolean collapse) {
+        return ResponseEntity.ok(newsService.search(query, page, size, collapse));
     }
 
 
@@ -117,8 +147,57 @@ public class NewsController {
                                                @RequestParam double lon,
                                                @RequestParam(defaultValue = "10") double radiusKm,
                                                @RequestParam(defaultValue = "0") int page,
-                                               @RequestParam(defaultValue = "200") int size) {
-        return ResponseEntity.ok(newsService.nearby(lat, lon, radiusKm, page, size));
+                                               @RequestParam(defaultValue = "200") int size,
+                                               @RequestParam(defaultValue = "false") boolean collapse) {
+        return ResponseEntity.ok(newsService.nearby(lat, lon, radiusKm, page, size, collapse));
+    }
+
+
+    @GetMapping(value = "/export", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    @Operation(summary = "Export articles",
+            description = "Streams every matching article as NDJSON or a chunked JSON array, straight from a database cursor. "
+                    + "Without format, the Accept header decides (NDJSON unless JSON is preferred). A failure after the "
+                    + "first article aborts the connection, so a truncated export never looks complete")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Export streamed"),
+            @ApiResponse(responseCode = "400", description = "Invalid filter combination or format", content = @Content(schema = @Schema(implementation = ApiError.class))),
+            @ApiResponse(responseCode = "500", description = "Server error", content = @Content(schema = @Schema(implementation = ApiError.class)))
+    })
+    public void export(@RequestParam(required = false) String category,
+                       @RequestParam(required = false) String source,
+                       @RequestParam(required = false) Double minScore,
+                       @RequestParam(required = false) Double lat,
+                       @RequestParam(required = false) Double lon,
+                       @RequestParam(required = false) Double radiusKm,
+                       @RequestParam(defaultValue = "false") boolean summaries,
+                       @RequestParam(required = false) String format,
+                       @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                       HttpServletResponse response) throws IOException {
+        boolean ndjson = exportAsNdjson(format, accept);
+        // validates and opens the cursor before anything is written, so bad requests still get an ApiError
+        try (Stream<NewsArticle> articles = newsService.exportStream(category, source, minScore, lat, lon, radiusKm)) {
+            response.setContentType(ndjson ? MediaType.APPLICATION_NDJSON_VALUE : MediaType.APPLICATION_JSON_VALUE);
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            JsonGenerator out = objectMapper.createGenerator(response.getOutputStream());
+            out.setRootValueSeparator(null);
+            if (!ndjson) out.writeStartArray();
+            // each batch is flushed to the socket; a slow client blocks the write and with it the cursor
+            newsService.export(articles, summaries, batch -> {
+                for (NewsArticle a : batch) {
+                    out.writeObject(a);
+                    if (ndjson) out.writeRaw('\n');
+                }
+                out.flush();
+            });
+            if (!ndjson) out.writeEndArray();
+            out.close();
+        } catch (IOException | RuntimeException ex) {
+            // Not closing the generator keeps a failed export from ending like a complete one. Before the first
+            // flush nothing is sent yet and the error handler answers with an ApiError; after it, the handler
+            // rethrows and the connection is aborted.
+            if (!response.isCommitted()) response.reset();
+            throw ex;
+        }
     }
 
 
@@ -149,4 +228,37 @@ public class NewsController {
                                                       @RequestParam(defaultValue = "5") int limit) {
         return ResponseEntity.ok(trendingService.topTrending(lat, lon, limit));
     }
-}
\ No newline at end of file
+
+    private static boolean exportAsNdjson(String format, String accept) {
+        if (format == null) return prefersNdjson(accept);
+        if ("ndjson".equalsIgnoreCase(format)) return true;
+        if ("json".equalsIgnoreCase(format)) return false;
+        throw new InvalidRequestException("Unsupported export format: " + format + " (use ndjson or json)");
+    }
+
+    // Highest-quality acceptable type wins; equal quality keeps the client's order, and wildcards mean NDJSON
+    private static boolean prefersNdjson(String accept) {
+        if (accept == null || accept.isBlank()) return true;
+        List<MediaType> accepted = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType type : accepted) {
+            if (type.getQualityValue() == 0) continue;
+            if (type.isCompatibleWith(MediaType.APPLICATION_NDJSON)) return true;
+            if (type.isCompatibleWith(MediaType.APPLICATION_JSON)) return false;
+        }
+        return true;
+    }
+
+    // Feeds only change when the corpus is reloaded, so the corpus version validates them; clients and
+    // shared caches may store the response but must revalidate, which costs a 304 until the next load.
+    private ResponseEntity<NewsResponse> versioned(WebRequest request, Supplier<NewsResponse> body) {
+        CorpusVersion version = corpusVersion.current();
+        if (request.checkNotModified(version.etag(), version.updatedAt().toEpochMilli())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePublic())
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(body.get());
+    }
+}
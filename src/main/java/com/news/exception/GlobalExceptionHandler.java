@@ -1,6 +1,8 @@
 package com.news.exception;
 
+import jakarta.servlet.RequestDispatcher;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -20,6 +22,13 @@ public class GlobalExceptionHandler {
         return buildError(HttpStatus.BAD_REQUEST, ex.getMessage(), request);
     }
 
+    @ExceptionHandler(DeadlineExceededException.class)
+    public ResponseEntity<ApiError> handleDeadline(DeadlineExceededException ex, HttpServletRequest request,
+                                                   HttpServletResponse response) throws Exception {
+        if (committed(ex, request, response)) return null;
+        return buildError(HttpStatus.GATEWAY_TIMEOUT, ex.getMessage(), request);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ApiError> handleValidation(MethodArgumentNotValidException ex, HttpServletRequest request) {
         String message = ex.getBindingResult().getAllErrors().get(0).getDefaultMessage();
@@ -27,10 +36,20 @@ public class GlobalExceptionHandler {
     }
 
     @ExceptionHandler(Exception.class)
-    public ResponseEntity<ApiError> handleGeneral(Exception ex, HttpServletRequest request) {
+    public ResponseEntity<ApiError> handleGeneral(Exception ex, HttpServletRequest request,
+                                                  HttpServletResponse response) throws Exception {
+        if (committed(ex, request, response)) return null;
         return buildError(HttpStatus.INTERNAL_SERVER_ERROR, ex.getMessage(), request);
     }
 
+    // A streamed body (/export) that fails midway is already on the wire in its own content type. Rethrowing
+    // lets the container abort the connection; the error page it then includes must not write either.
+    private static boolean committed(Exception ex, HttpServletRequest request, HttpServletResponse response) throws Exception {
+        if (!response.isCommitted()) return false;
+        if (request.getAttribute(RequestDispatcher.ERROR_EXCEPTION) == null) throw ex;
+        return true;
+    }
+
     private ResponseEntity<ApiError> buildError(HttpStatus status, String message, HttpServletRequest request) {
         ApiError error = new ApiError(
                 status.value(),
@@ -0,0 +1,12 @@
+package com.news.model;
+
+import java.time.Instant;
+
+/** Version of the article corpus; it changes whenever articles are (re)loaded through the admin API. */
+public record CorpusVersion(long version, Instant updatedAt) {
+
+    /** Weak validator: equal versions hold the same articles, but LLM summaries may be worded differently. */
+    public String etag() {
+        return "W/\"" + version + "-" + updatedAt.toEpochMilli() + "\"";
+    }
+}
@@ -0,0 +1,133 @@
+package com.news.model;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * HyperLogLog distinct counter with {@code 2^precision} one-byte registers (1 KB and ~3% error at the
+ * default precision of 10). Merging takes the register-wise maximum, so it is exact across nodes. Serialized
+ * sketches with few non-zero registers are written sparsely, as (index, rank) pairs.
+ */
+public class HyperLogLog {
+
+    // set in the precision byte of the sparse encoding; dense sketches written before it never have it
+    private static final int SPARSE = 0x80;
+
+    private final int precision;
+    private final byte[] registers;
+
+    public HyperLogLog(int precision) {
+        if (precision < 4 || precision > 16) {
+            throw new IllegalArgumentException("HyperLogLog precision must be between 4 and 16");
+        }
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    public int precision() {
+        return precision;
+    }
+
+    public synchronized void add(String value) {
+        long hash = hash64(value);
+        int index = (int) (hash >>> (64 - precision));
+        byte rank = (byte) Math.min(Long.numberOfLeadingZeros(hash << precision) + 1, 64 - precision + 1);
+        if (rank > registers[index]) registers[index] = rank;
+    }
+
+    public void merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Cannot merge HyperLogLogs of different precision");
+        }
+        byte[] theirs;
+        synchronized (other) {
+            theirs = other.registers.clone();
+        }
+        synchronized (this) {
+            for (int i = 0; i < registers.length; i++) {
+                if (theirs[i] > registers[i]) registers[i] = theirs[i];
+            }
+        }
+    }
+
+    public synchronized long estimate() {
+        int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (byte r : registers) {
+            sum += 1.0 / (1L << r);
+            if (r == 0) zeros++;
+        }
+        double alpha = 0.7213 / (1 + 1.079 / m);
+        double estimate = alpha * m * m / sum;
+        if (estimate <= 2.5 * m && zeros > 0) {
+            estimate = m * Math.log((double) m / zeros); // linear counting for small cardinalities
+        }
+        return Math.round(estimate);
+    }
+
+    public synchronized HyperLogLog copy() {
+        HyperLogLog copy = new HyperLogLog(precision);
+        System.arraycopy(registers, 0, copy.registers, 0, registers.length);
+        return copy;
+    }
+
+    public synchronized void writeTo(DataOutputStream out) throws IOException {
+        int nonZero = 0;
+        for (byte r : registers) {
+            if (r != 0) nonZero++;
+        }
+        // a pair costs 3 bytes, so sparse wins below a third of the registers
+        if (nonZero * 3 >= registers.length) {
+            out.writeByte(precision);
+            out.write(registers);
+            return;
+        }
+        out.writeByte(precision | SPARSE);
+        out.writeShort(nonZero);
+        for (int i = 0; i < registers.length; i++) {
+            if (registers[i] != 0) {
+                out.writeShort(i);
+                out.writeByte(registers[i]);
+            }
+        }
+    }
+
+    /** Upper bound of {@link #writeTo}'s output for the given precision. */
+    public static int maxSerializedBytes(int precision) {
+        return 1 + (1 << precision);
+    }
+
+    public static HyperLogLog readFrom(DataInputStream in) throws IOException {
+        int header = in.readUnsignedByte();
+        HyperLogLog hll = new HyperLogLog(header & ~SPARSE);
+        if ((header & SPARSE) == 0) {
+            in.readFully(hll.registers);
+            return hll;
+        }
+        int n = in.readUnsignedShort();
+        for (int i = 0; i < n; i++) {
+            int index = in.readUnsignedShort();
+            byte rank = in.readByte();
+            if (index >= hll.registers.length) throw new IOException("HyperLogLog register " + index + " out of range");
+            hll.registers[index] = rank;
+        }
+        return hll;
+    }
+
+    // FNV-1a over the UTF-16 chars followed by the murmur3 finalizer for good high-bit dispersion
+    static long hash64(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,66 @@
+package com.news.model;
+
+import java.util.*;
+
+/**
+ * MinHash signatures of a text's word set: the fraction of equal signature positions estimates the Jaccard
+ * similarity of two texts. For LSH the signature is cut into bands of {@code rows} values; two texts with
+ * similarity {@code s} share at least one band key with probability {@code 1 - (1 - s^rows)^bands}, so
+ * similar texts are found through an index on the keys while unrelated ones almost never collide.
+ */
+public final class MinHash {
+
+    private MinHash() {
+    }
+
+    /** Signature of the words of {@code text} longer than one character, or null if there are none. */
+    public static int[] signature(String text, int size) {
+        Set<String> words = new HashSet<>();
+        for (String w : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (w.length() > 1) words.add(w);
+        }
+        // an all-MAX_VALUE signature would make every text without words a duplicate of every other
+        if (words.isEmpty()) return null;
+        int[] signature = new int[size];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (String word : words) {
+            long base = HyperLogLog.hash64(word);
+            for (int i = 0; i < size; i++) {
+                int h = (int) mix(base + (i + 1) * 0x9e3779b97f4a7c15L);
+                if (h < signature[i]) signature[i] = h;
+            }
+        }
+        return signature;
+    }
+
+    public static double similarity(int[] a, int[] b) {
+        if (a.length != b.length) return 0;
+        int equal = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == b[i]) equal++;
+        }
+        return (double) equal / a.length;
+    }
+
+    /** Band keys of {@code signature}; the band number is kept in the top byte so keys of different bands never match. */
+    public static List<Long> bands(int[] signature, int bands) {
+        int rows = signature.length / bands;
+        List<Long> keys = new ArrayList<>(bands);
+        for (int band = 0; band < bands; band++) {
+            long h = band;
+            for (int r = band * rows; r < (band + 1) * rows; r++) h = mix(h * 31 + signature[r]);
+            keys.add(((long) band << 56) | (h & 0x00ffffffffffffffL));
+        }
+        return keys;
+    }
+
+    // murmur3 fmix64
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
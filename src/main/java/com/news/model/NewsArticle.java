@@ -1,10 +1,13 @@
 package com.news.model;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.PropertyNamingStrategies;
 import com.fasterxml.jackson.databind.annotation.JsonNaming;
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.time.LocalDateTime;
@@ -33,4 +36,19 @@ public class NewsArticle {
     private Double latitude;
     private Double longitude;
     private String llmSummary;
+
+    // Near-duplicate clustering, computed at load: MinHash signature of title + description, its LSH band
+    // keys and the id of the first article of the story (its own id if it has no earlier near-duplicate)
+    @JsonIgnore
+    private int[] minhash;
+    @JsonIgnore
+    @Indexed
+    private List<Long> lshBands;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String clusterId;
+
+    // Estimated distinct users, only filled in for trending results
+    @Transient
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long uniqueUsers;
 }
\ No newline at end of file
@@ -0,0 +1,164 @@
+package com.news.model;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Weighted Space-Saving heavy-hitters summary holding at most {@code capacity} items. Counts over-estimate
+ * the true weight by at most the recorded error, and two summaries can be merged (Cafaro et al., parallel
+ * Space-Saving) so per-node summaries combine into one with the same guarantees.
+ */
+public class SpaceSaving {
+
+    private final int capacity;
+    private final Map<String, Counter> counters = new HashMap<>();
+
+    public SpaceSaving(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public static final class Counter {
+        private double count;
+        private double error;
+
+        Counter(double count, double error) {
+            this.count = count;
+            this.error = error;
+        }
+
+        public double count() {
+            return count;
+        }
+
+        public double error() {
+            return error;
+        }
+    }
+
+    /** Adds {@code weight} to {@code item}; returns the item evicted to make room for it, or null. */
+    public synchronized String add(String item, double weight) {
+        Counter c = counters.get(item);
+        if (c != null) {
+            c.count += weight;
+        } else if (counters.size() < capacity) {
+            counters.put(item, new Counter(weight, 0));
+        } else {
+            Map.Entry<String, Counter> min = minEntry();
+            counters.remove(min.getKey());
+            Counter evicted = min.getValue();
+            counters.put(item, new Counter(evicted.count + weight, evicted.count));
+            return min.getKey();
+        }
+        return null;
+    }
+
+    public synchronized boolean contains(String item) {
+        return counters.containsKey(item);
+    }
+
+    /** Recorded counter for {@code item}, or null if it is not held. */
+    public synchronized Counter counter(String item) {
+        Counter c = counters.get(item);
+        return c == null ? null : new Counter(c.count, c.error);
+    }
+
+    /** Merges {@code other}, whose counts are multiplied by {@code scale} first (e.g. to align decay epochs). */
+    public void merge(SpaceSaving other, double scale) {
+        Map<String, Counter> theirs;
+        double theirMin;
+        synchronized (other) {
+            theirs = new HashMap<>(other.counters.size());
+            other.counters.forEach((k, v) -> theirs.put(k, new Counter(v.count * scale, v.error * scale)));
+            theirMin = other.isFull() ? other.minEntry().getValue().count * scale : 0;
+        }
+        synchronized (this) {
+            double ourMin = isFull() ? minEntry().getValue().count : 0;
+            Map<String, Counter> merged = new HashMap<>();
+            counters.forEach((item, c) -> {
+                Counter t = theirs.get(item);
+                merged.put(item, t != null
+                        ? new Counter(c.count + t.count, c.error + t.error)
+                        : new Counter(c.count + theirMin, c.error + theirMin));
+            });
+            theirs.forEach((item, t) -> {
+                if (!counters.containsKey(item)) merged.put(item, new Counter(t.count + ourMin, t.error + ourMin));
+            });
+            counters.clear();
+            merged.entrySet().stream()
+                    .sorted(Comparator.comparingDouble((Map.Entry<String, Counter> e) -> e.getValue().count).reversed())
+                    .limit(capacity)
+                    .forEach(e -> counters.put(e.getKey(), e.getValue()));
+        }
+    }
+
+    /** Multiplies every count by {@code factor} and drops items whose count falls below {@code pruneBelow}. */
+    public synchronized void scale(double factor, double pruneBelow) {
+        counters.values().removeIf(c -> {
+            c.count *= factor;
+            c.error *= factor;
+            return c.count < pruneBelow;
+        });
+    }
+
+    public synchronized Map<String, Double> counts() {
+        Map<String, Double> counts = new HashMap<>(counters.size());
+        counters.forEach((k, v) -> counts.put(k, v.count));
+        return counts;
+    }
+
+    public synchronized double total() {
+        return counters.values().stream().mapToDouble(c -> c.count).sum();
+    }
+
+    public synchronized int size() {
+        return counters.size();
+    }
+
+    public synchronized boolean isEmpty() {
+        return counters.isEmpty();
+    }
+
+    public synchronized SpaceSaving copy() {
+        SpaceSaving copy = new SpaceSaving(capacity);
+        counters.forEach((k, v) -> copy.counters.put(k, new Counter(v.count, v.error)));
+        return copy;
+    }
+
+    public synchronized void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(counters.size());
+        for (Map.Entry<String, Counter> e : counters.entrySet()) {
+            out.writeUTF(e.getKey());
+            out.writeDouble(e.getValue().count);
+            out.writeDouble(e.getValue().error);
+        }
+    }
+
+    public static SpaceSaving readFrom(DataInputStream in, int capacity) throws IOException {
+        SpaceSaving summary = new SpaceSaving(capacity);
+        int n = in.readInt();
+        for (int i = 0; i < n; i++) {
+            summary.counters.put(in.readUTF(), new Counter(in.readDouble(), in.readDouble()));
+        }
+        // a peer may run with a larger capacity; shrink by merging into an empty summary
+        if (n > capacity) {
+            SpaceSaving shrunk = new SpaceSaving(capacity);
+            shrunk.merge(summary, 1.0);
+            return shrunk;
+        }
+        return summary;
+    }
+
+    private boolean isFull() {
+        return counters.size() >= capacity;
+    }
+
+    private Map.Entry<String, Counter> minEntry() {
+        Map.Entry<String, Counter> min = null;
+        for (Map.Entry<String, Counter> e : counters.entrySet()) {
+            if (min == null || e.getValue().count < min.getValue().count) min = e;
+        }
+        return min;
+    }
+}
@@ -0,0 +1,245 @@
+package com.news.model;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Aggregated trending state: a {@link SpaceSaving} summary of top articles per geo cell plus a
+ * {@link HyperLogLog} of unique users per tracked article. Each event adds {@code base * e^((t - epoch) / 1 day)}
+ * to its cell, so the score at any later time is {@code weight * e^(-(now - epoch) / 1 day)} and the raw
+ * events never need to be kept. Memory is bounded at all times by {@code maxCells * topK} counters plus one
+ * HyperLogLog per article held in some cell's summary: a new cell beyond {@code maxCells} first evicts the
+ * lightest cells, and an article's HyperLogLog is dropped as soon as no summary holds it any more. States from
+ * different nodes can be {@link #merge merged}.
+ */
+public class TrendingState {
+
+    public static final double DECAY_MILLIS = 24 * 3600_000.0;
+    public static final int FORMAT_VERSION = 3;
+    // keeps e^(x) finite for timestamps far in the future
+    private static final double MAX_EXPONENT = 600;
+
+    private final double cellDegrees;
+    private final int topK;
+    private final int hllPrecision;
+    private final int maxCells;
+    private final ConcurrentHashMap<Long, Cell> cells = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Tracked> tracked = new ConcurrentHashMap<>();
+    private volatile long epochMillis;
+
+    public TrendingState(double cellDegrees, int topK, int maxCells, int hllPrecision, long epochMillis) {
+        this.cellDegrees = cellDegrees;
+        this.topK = topK;
+        this.maxCells = maxCells;
+        this.hllPrecision = hllPrecision;
+        this.epochMillis = epochMillis;
+    }
+
+    public record Cell(double latitude, double longitude, SpaceSaving articles) { }
+
+    // unique users of an article and the number of cell summaries currently holding it
+    private static final class Tracked {
+        private final HyperLogLog users;
+        private int cells;
+
+        Tracked(HyperLogLog users) {
+            this.users = users;
+        }
+    }
+
+    public void add(long timestampMillis, double lat, double lon, String articleId, String userId, double base) {
+        double exponent = Math.min((timestampMillis - epochMillis) / DECAY_MILLIS, MAX_EXPONENT);
+        SpaceSaving articles = cellFor(lat, lon).articles();
+        // admissions and evictions of one cell are counted in the order they happen
+        synchronized (articles) {
+            boolean held = articles.contains(articleId);
+            String evicted = articles.add(articleId, base * Math.exp(exponent));
+            if (!held) retain(articleId);
+            if (evicted != null) release(evicted);
+        }
+        if (userId != null && !userId.isBlank()) {
+            Tracked t = tracked.get(articleId);
+            if (t != null) t.users.add(userId);
+        }
+    }
+
+    /** Multiplier that turns a stored weight into the decayed weight at {@code nowMillis}. */
+    public double decayTo(long nowMillis) {
+        return Math.exp(-(nowMillis - epochMillis) / DECAY_MILLIS);
+    }
+
+    public Iterable<Cell> cells() {
+        return cells.values();
+    }
+
+    public Optional<HyperLogLog> uniqueUsers(String articleId) {
+        return Optional.ofNullable(tracked.get(articleId)).map(t -> t.users);
+    }
+
+    public int size() {
+        return cells.values().stream().mapToInt(c -> c.articles().size()).sum();
+    }
+
+    /**
+     * Moves the epoch to {@code nowMillis}, drops decayed entries and keeps the {@code maxCells} heaviest cells.
+     * Not safe against concurrent {@link #add}; callers must hold an exclusive lock.
+     */
+    public void rebase(long nowMillis, double pruneBelow) {
+        double factor = decayTo(nowMillis);
+        cells.values().removeIf(cell -> {
+            cell.articles().scale(factor, pruneBelow);
+            return cell.articles().isEmpty();
+        });
+        if (cells.size() > maxCells) {
+            cells.entrySet().stream()
+                    .sorted(Comparator.comparingDouble(e -> e.getValue().articles().total()))
+                    .limit(cells.size() - maxCells)
+                    .map(Map.Entry::getKey)
+                    .toList()
+                    .forEach(cells::remove);
+        }
+        recount();
+        epochMillis = nowMillis;
+    }
+
+    /**
+     * Folds {@code other} into this state, rescaling its weights to this state's epoch. Not safe against
+     * concurrent {@link #add}; callers must hold an exclusive lock.
+     */
+    public void merge(TrendingState other) {
+        double scale = Math.exp(Math.min((other.epochMillis - epochMillis) / DECAY_MILLIS, MAX_EXPONENT));
+        for (Cell cell : other.cells.values()) {
+            cellFor(cell.latitude(), cell.longitude()).articles().merge(cell.articles(), scale);
+        }
+        recount();
+        other.tracked.forEach((articleId, theirs) -> {
+            Tracked ours = tracked.get(articleId);
+            if (ours != null) ours.users.merge(theirs.users);
+        });
+    }
+
+    public TrendingState copy() {
+        TrendingState copy = new TrendingState(cellDegrees, topK, maxCells, hllPrecision, epochMillis);
+        cells.forEach((key, cell) -> copy.cells.put(key, new Cell(cell.latitude(), cell.longitude(), cell.articles().copy())));
+        copy.recount();
+        copy.tracked.forEach((articleId, t) -> {
+            Tracked ours = tracked.get(articleId);
+            if (ours != null) t.users.merge(ours.users);
+        });
+        return copy;
+    }
+
+    /**
+     * Upper bound of {@link #writeTo}'s output for a state of this configuration whose ids are at most
+     * {@code maxIdBytes} UTF-8 bytes (modified UTF-8, as written by {@code writeUTF}, takes at most 1.5 times that).
+     */
+    public static long maxSerializedBytes(int maxCells, int topK, int hllPrecision, int maxIdBytes) {
+        long entries = (long) maxCells * topK;
+        long id = 2 + maxIdBytes * 3L / 2;
+        return 8 + 4 + maxCells * (8 + 8 + 4L) + entries * (id + 8 + 8)
+                + 4 + entries * (id + HyperLogLog.maxSerializedBytes(hllPrecision));
+    }
+
+    public void writeTo(DataOutputStream out) throws IOException {
+        out.writeLong(epochMillis);
+        List<Cell> cellList = new ArrayList<>(cells.values());
+        out.writeInt(cellList.size());
+        for (Cell cell : cellList) {
+            out.writeDouble(cell.latitude());
+            out.writeDouble(cell.longitude());
+            cell.articles().writeTo(out);
+        }
+        Map<String, Tracked> hlls = new HashMap<>(tracked);
+        out.writeInt(hlls.size());
+        for (Map.Entry<String, Tracked> e : hlls.entrySet()) {
+            out.writeUTF(e.getKey());
+            e.getValue().users.writeTo(out);
+        }
+    }
+
+    /**
+     * Replaces the current contents with data written by {@link #writeTo} in the given format version;
+     * cells are re-bucketed by their centre if the cell size changed.
+     */
+    public void readFrom(DataInputStream in, int version) throws IOException {
+        // 3 differs from 2 only in allowing sparse HyperLogLogs, which HyperLogLog.readFrom recognizes
+        if (version < 1 || version > FORMAT_VERSION) {
+            throw new IOException("Unsupported trending state format version " + version);
+        }
+        cells.clear();
+        tracked.clear();
+        epochMillis = in.readLong();
+        int cellCount = in.readInt();
+        for (int i = 0; i < cellCount; i++) {
+            Cell cell = cellFor(in.readDouble(), in.readDouble());
+            if (version == 1) {
+                // plain per-article weights, written before cells held top-K summaries
+                int n = in.readInt();
+                for (int j = 0; j < n; j++) cell.articles().add(in.readUTF(), in.readDouble());
+            } else {
+                cell.articles().merge(SpaceSaving.readFrom(in, topK), 1.0);
+            }
+        }
+        recount();
+        if (version == 1) return;
+        int hllCount = in.readInt();
+        for (int i = 0; i < hllCount; i++) {
+            String articleId = in.readUTF();
+            HyperLogLog hll = HyperLogLog.readFrom(in);
+            Tracked t = tracked.get(articleId);
+            // registers of a different precision cannot be combined; that article's count restarts
+            if (t != null && hll.precision() == hllPrecision) t.users.merge(hll);
+        }
+    }
+
+    private void retain(String articleId) {
+        tracked.compute(articleId, (k, t) -> {
+            if (t == null) t = new Tracked(new HyperLogLog(hllPrecision));
+            t.cells++;
+            return t;
+        });
+    }
+
+    private void release(String articleId) {
+        tracked.computeIfPresent(articleId, (k, t) -> --t.cells > 0 ? t : null);
+    }
+
+    // Rebuilds the per-article cell counts after bulk changes to the summaries; exclusive callers only
+    private void recount() {
+        Map<String, Integer> held = new HashMap<>();
+        cells.values().forEach(c -> c.articles().counts().keySet().forEach(id -> held.merge(id, 1, Integer::sum)));
+        tracked.keySet().retainAll(held.keySet());
+        held.forEach((articleId, n) -> tracked.computeIfAbsent(articleId, k -> new Tracked(new HyperLogLog(hllPrecision))).cells = n);
+    }
+
+    // Makes room for a new cell by dropping the lightest eighth at once, so the sort is amortized over many cells
+    private synchronized void evictLightestCells() {
+        if (cells.size() < maxCells) return;
+        cells.entrySet().stream()
+                .sorted(Comparator.comparingDouble(e -> e.getValue().articles().total()))
+                .limit(cells.size() - maxCells + Math.max(1, maxCells / 8))
+                .map(Map.Entry::getKey)
+                .toList()
+                .forEach(key -> {
+                    Cell removed = cells.remove(key);
+                    if (removed == null) return;
+                    synchronized (removed.articles()) {
+                        removed.articles().counts().keySet().forEach(this::release);
+                    }
+                });
+    }
+
+    private Cell cellFor(double lat, double lon) {
+        long latIdx = (long) Math.floor(lat / cellDegrees);
+        long lonIdx = (long) Math.floor(lon / cellDegrees);
+        long key = (latIdx << 32) | (lonIdx & 0xffffffffL);
+        Cell cell = cells.get(key);
+        if (cell != null) return cell;
+        if (cells.size() >= maxCells) evictLightestCells();
+        return cells.computeIfAbsent(key, k -> new Cell((latIdx + 0.5) * cellDegrees, (lonIdx + 0.5) * cellDegrees,
+                new SpaceSaving(topK)));
+    }
+}
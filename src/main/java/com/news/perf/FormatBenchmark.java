@@ -0,0 +1,118 @@
+package com.news.perf;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.luben.zstd.Zstd;
+import com.news.dto.NewsResponse;
+import com.news.model.NewsArticle;
+import com.news.service.SimpleLlmClient;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compares payload size and serialization cost of the response formats offered through content negotiation
+ * (JSON, Smile, CBOR), each raw and with gzip and zstd. Pages are built from the seed articles, with LLM
+ * summaries filled in like the feed endpoints return them. Needs the runtime classpath:
+ *
+ * <pre>
+ * mvn -q dependency:build-classpath -Dmdep.outputFile=target/classpath.txt
+ * java -cp target/classes:$(cat target/classpath.txt) com.news.perf.FormatBenchmark [--seed=...] [--pages=5,200]
+ * </pre>
+ */
+public final class FormatBenchmark {
+
+    private static final long WARMUP_NANOS = 1_000_000_000L;
+    private static final long MEASURE_NANOS = 2_000_000_000L;
+    private static final int ZSTD_LEVEL = 3;
+
+    private FormatBenchmark() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> opts = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (arg.startsWith("--") && eq > 0) opts.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        Path seed = Path.of(opts.getOrDefault("seed", "src/main/resources/news_data.json"));
+        int[] pages = Arrays.stream(opts.getOrDefault("pages", "5,200").split(",")).mapToInt(Integer::parseInt).toArray();
+
+        Map<String, ObjectMapper> formats = new LinkedHashMap<>();
+        formats.put("json", mapper(new JsonFactory()));
+        formats.put("smile", mapper(new SmileFactory()));
+        formats.put("cbor", mapper(new CBORFactory()));
+
+        List<NewsArticle> articles = formats.get("json").readValue(seed.toFile(), new TypeReference<List<NewsArticle>>() {
+        });
+        SimpleLlmClient llm = new SimpleLlmClient();
+        articles.forEach(a -> a.setLlmSummary(llm.summarize(a.getTitle(), a.getDescription())));
+
+        for (int size : pages) {
+            NewsResponse page = new NewsResponse(articles.size(), 0, articles.subList(0, Math.min(size, articles.size())));
+            byte[] json = formats.get("json").writeValueAsBytes(page);
+            System.out.printf("%n== NewsResponse with %d articles%n", page.getArticles().size());
+            System.out.printf("%-7s %9s %9s %9s %6s %12s %12s %12s %12s%n", "format", "raw B", "gzip B", "zstd B",
+                    "vs json", "ser us/op", "deser us/op", "+gzip us/op", "+zstd us/op");
+            for (Map.Entry<String, ObjectMapper> format : formats.entrySet()) {
+                ObjectMapper mapper = format.getValue();
+                byte[] raw = mapper.writeValueAsBytes(page);
+                byte[] gzip = gzip(raw);
+                byte[] zstd = Zstd.compress(raw, ZSTD_LEVEL);
+                double ser = microsPerOp(() -> mapper.writeValueAsBytes(page));
+                double deser = microsPerOp(() -> mapper.readValue(raw, NewsResponse.class));
+                double serGzip = microsPerOp(() -> gzip(mapper.writeValueAsBytes(page)));
+                double serZstd = microsPerOp(() -> Zstd.compress(mapper.writeValueAsBytes(page), ZSTD_LEVEL));
+                System.out.printf("%-7s %9d %9d %9d %5.0f%% %12.1f %12.1f %12.1f %12.1f%n", format.getKey(),
+                        raw.length, gzip.length, zstd.length, 100.0 * raw.length / json.length, ser, deser, serGzip, serZstd);
+            }
+        }
+    }
+
+    // Same settings as the application's mapper (spring.jackson.* in application.properties)
+    private static ObjectMapper mapper(JsonFactory factory) {
+        return new ObjectMapper(factory)
+                .registerModule(new JavaTimeModule())
+                .setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE)
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    private static byte[] gzip(byte[] raw) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(raw.length / 2);
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(raw);
+        }
+        return bytes.toByteArray();
+    }
+
+    @FunctionalInterface
+    private interface Op {
+        Object run() throws IOException;
+    }
+
+    private static double microsPerOp(Op op) throws IOException {
+        Object sink = null;
+        long end = System.nanoTime() + WARMUP_NANOS;
+        while (System.nanoTime() < end) sink = op.run();
+        long ops = 0;
+        long start = System.nanoTime();
+        end = start + MEASURE_NANOS;
+        long now;
+        do {
+            sink = op.run();
+            ops++;
+        } while ((now = System.nanoTime()) < end);
+        if (sink == null) throw new IllegalStateException();
+        return (now - start) / 1000.0 / ops;
+    }
+}
@@ -0,0 +1,354 @@
+package com.news.perf;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Standalone load driver for the {@code /api/v1/news} endpoints. It only depends on the JDK so it
+ * can be started straight from {@code target/classes} next to an app running the {@code perf} profile:
+ *
+ * <pre>
+ * java -cp target/classes com.news.perf.LoadDriver --base-url=http://localhost:8080 \
+ *      --threads=64 --warmup=15s --duration=60s [--rate=500] [--mix=category:30,search:20,...]
+ * </pre>
+ *
+ * Without {@code --rate} every worker issues requests back to back (closed loop). With {@code --rate}
+ * requests are paced to a fixed schedule and latency is measured from the intended start time, so a
+ * stalled server shows up in the percentiles instead of silently lowering the offered load.
+ */
+public final class LoadDriver {
+
+    private static final String[] CATEGORIES = {"national", "sports", "General", "world", "business",
+            "entertainment", "politics", "IPL_2025", "technology", "Health___Fitness", "startup"};
+    private static final String[] SOURCES = {"Hindustan Times", "News Karnataka", "Free Press Journal", "News18",
+            "ET Now", "The Indian Express", "Moneycontrol", "Reuters", "Times Now"};
+    private static final String[] SEARCH_TERMS = {"India", "election", "cricket", "market", "police", "film",
+            "Modi", "court", "budget", "startup"};
+    private static final String[] ANALYZE_QUERIES = {"latest technology news from Reuters", "sports news near Mumbai",
+            "top business stories", "news about Elon Musk", "politics from Hindustan Times"};
+    private static final double[][] CITIES = {{28.61, 77.21}, {19.08, 72.88}, {12.97, 77.59}, {22.57, 88.36},
+            {13.08, 80.27}, {17.39, 78.49}, {18.52, 73.86}, {23.02, 72.57}};
+
+    private static final Pattern ARTICLE_ID = Pattern.compile("\"id\"\\s*:\\s*\"([^\"]+)\"");
+
+    private static final Map<String, Integer> DEFAULT_MIX = new LinkedHashMap<>();
+
+    static {
+        DEFAULT_MIX.put("category", 25);
+        DEFAULT_MIX.put("source", 12);
+        DEFAULT_MIX.put("score", 8);
+        DEFAULT_MIX.put("search", 15);
+        DEFAULT_MIX.put("nearby", 8);
+        DEFAULT_MIX.put("events", 20);
+        DEFAULT_MIX.put("trending", 10);
+        DEFAULT_MIX.put("analyze", 2);
+    }
+
+    private final String baseUrl;
+    private final int threads;
+    private final Duration warmup;
+    private final Duration duration;
+    private final double rate;
+    private final long seed;
+    private final List<String> endpoints = new ArrayList<>();
+    private final int[] cumulativeWeights;
+    private final HttpClient client;
+    private List<String> articleIds = List.of();
+
+    private LoadDriver(Map<String, String> opts) {
+        this.baseUrl = opts.getOrDefault("base-url", "http://localhost:8080");
+        this.threads = Integer.parseInt(opts.getOrDefault("threads", "32"));
+        this.warmup = parseDuration(opts.getOrDefault("warmup", "10s"));
+        this.duration = parseDuration(opts.getOrDefault("duration", "60s"));
+        this.rate = Double.parseDouble(opts.getOrDefault("rate", "0"));
+        this.seed = Long.parseLong(opts.getOrDefault("seed", "42"));
+        Map<String, Integer> mix = opts.containsKey("mix") ? parseMix(opts.get("mix")) : DEFAULT_MIX;
+        this.cumulativeWeights = new int[mix.size()];
+        int total = 0;
+        for (Map.Entry<String, Integer> e : mix.entrySet()) {
+            if (!DEFAULT_MIX.containsKey(e.getKey())) {
+                throw new IllegalArgumentException("Unknown endpoint in mix: " + e.getKey());
+            }
+            total += e.getValue();
+            cumulativeWeights[endpoints.size()] = total;
+            endpoints.add(e.getKey());
+        }
+        if (total <= 0) throw new IllegalArgumentException("Mix weights must add up to more than 0");
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(Math.max(2, threads / 4)))
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opts = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            opts.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        LoadDriver driver = new LoadDriver(opts);
+        driver.discoverArticleIds();
+        if (!driver.warmup.isZero()) {
+            System.out.printf("Warming up for %ds...%n", driver.warmup.toSeconds());
+            driver.run(driver.warmup);
+        }
+        System.out.printf("Measuring for %ds with %d threads%s...%n", driver.duration.toSeconds(), driver.threads,
+                driver.rate > 0 ? " at " + driver.rate + " req/s" : "");
+        Report report = driver.run(driver.duration);
+        report.print(System.out);
+        System.exit(0);
+    }
+
+    /** Collects real article ids from the category feeds so ingested events point at existing articles. */
+    private void discoverArticleIds() {
+        Set<String> ids = new LinkedHashSet<>();
+        for (String category : CATEGORIES) {
+            for (int page = 0; page < 3; page++) {
+                URI uri = URI.create(baseUrl + "/api/v1/news/category?name=" + enc(category) + "&page=" + page);
+                try {
+                    HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri).GET().build(),
+                            HttpResponse.BodyHandlers.ofString());
+                    Matcher m = ARTICLE_ID.matcher(response.body());
+                    while (m.find()) ids.add(m.group(1));
+                } catch (IOException e) {
+                    throw new IllegalStateException("Cannot reach " + baseUrl + ": " + e.getMessage(), e);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+        articleIds = List.copyOf(ids);
+        System.out.printf("Discovered %d article ids for event ingestion%n", articleIds.size());
+    }
+
+    private Report run(Duration length) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Worker> workers = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(threads);
+        long start = System.nanoTime();
+        long end = start + length.toNanos();
+        for (int i = 0; i < threads; i++) {
+            Worker w = new Worker(i, start, end, done);
+            workers.add(w);
+            pool.execute(w);
+        }
+        done.await();
+        long elapsed = System.nanoTime() - start;
+        pool.shutdownNow();
+        pool.awaitTermination(5, TimeUnit.SECONDS);
+
+        Report report = new Report(elapsed);
+        for (Worker w : workers) w.stats.forEach(report::merge);
+        return report;
+    }
+
+    private final class Worker implements Runnable {
+        private final int index;
+        private final long start;
+        private final long end;
+        private final CountDownLatch done;
+        private final Random random;
+        private final Map<String, EndpointStats> stats = new TreeMap<>();
+
+        Worker(int index, long start, long end, CountDownLatch done) {
+            this.index = index;
+            this.start = start;
+            this.end = end;
+            this.done = done;
+            this.random = new Random(seed + index);
+        }
+
+        @Override
+        public void run() {
+            try {
+                // each worker owns every threads-th slot of the global schedule
+                long intervalNanos = rate > 0 ? (long) (1_000_000_000L * threads / rate) : 0;
+                long intended = start + (rate > 0 ? (long) (1_000_000_000L / rate) * index : 0);
+                while (true) {
+                    long now = System.nanoTime();
+                    if (rate > 0) {
+                        if (intended >= end) break;
+                        if (intended > now) TimeUnit.NANOSECONDS.sleep(intended - now);
+                    } else {
+                        if (now >= end) break;
+                        intended = now;
+                    }
+                    String endpoint = pick();
+                    HttpRequest request = build(endpoint);
+                    int status;
+                    try {
+                        status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                    } catch (IOException e) {
+                        status = -1;
+                    }
+                    long latency = System.nanoTime() - intended;
+                    stats.computeIfAbsent(endpoint, EndpointStats::new).record(latency, status);
+                    intended += intervalNanos;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                done.countDown();
+            }
+        }
+
+        private String pick() {
+            int r = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+            for (int i = 0; i < cumulativeWeights.length; i++) {
+                if (r < cumulativeWeights[i]) return endpoints.get(i);
+            }
+            return endpoints.get(endpoints.size() - 1);
+        }
+
+        private HttpRequest build(String endpoint) {
+            double[] city = CITIES[random.nextInt(CITIES.length)];
+            double lat = city[0] + random.nextGaussian() * 0.5;
+            double lon = city[1] + random.nextGaussian() * 0.5;
+            String path = switch (endpoint) {
+                case "category" -> "/category?name=" + enc(any(CATEGORIES)) + "&page=" + random.nextInt(3);
+                case "source" -> "/source?name=" + enc(any(SOURCES));
+                case "score" -> "/score?threshold=" + (random.nextInt(9) + 1) / 10.0;
+                case "search" -> "/search?query=" + enc(any(SEARCH_TERMS));
+                case "nearby" -> "/nearby?lat=" + lat + "&lon=" + lon + "&radiusKm=" + (50 + random.nextInt(450));
+                case "trending" -> "/trending?lat=" + lat + "&lon=" + lon + "&limit=5";
+                case "analyze" -> "/analyze?query=" + enc(any(ANALYZE_QUERIES));
+                case "events" -> "/events";
+                default -> throw new IllegalStateException("Unknown endpoint: " + endpoint);
+            };
+            HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/news" + path))
+                    .timeout(Duration.ofSeconds(30));
+            if (endpoint.equals("events")) {
+                String body = String.format(Locale.ROOT,
+                        "{\"user_id\":\"u%d\",\"article_id\":\"%s\",\"type\":\"%s\",\"latitude\":%f,\"longitude\":%f,\"timestamp\":\"%s\"}",
+                        random.nextInt(100_000), articleId(), random.nextInt(4) == 0 ? "click" : "view",
+                        lat, lon, Instant.now());
+                return builder.header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build();
+            }
+            return builder.GET().build();
+        }
+
+        private String articleId() {
+            // skew towards the head of the list so a few stories actually trend
+            if (articleIds.isEmpty()) return "a" + random.nextInt(2_000);
+            int i = (int) Math.min(articleIds.size() - 1, Math.abs(random.nextGaussian()) * articleIds.size() / 4);
+            return articleIds.get(i);
+        }
+
+        private String any(String[] values) {
+            return values[random.nextInt(values.length)];
+        }
+    }
+
+    /** Per-endpoint raw latency samples; sorted once at report time for exact percentiles. */
+    private static final class EndpointStats {
+        private final String endpoint;
+        private long[] latencies = new long[1024];
+        private int count;
+        private long ok;
+        private long clientErrors;
+        private long serverErrors;
+        private long transportErrors;
+
+        EndpointStats(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        void record(long latencyNanos, int status) {
+            if (count == latencies.length) latencies = Arrays.copyOf(latencies, count * 2);
+            latencies[count++] = latencyNanos;
+            if (status < 0) transportErrors++;
+            else if (status >= 500) serverErrors++;
+            else if (status >= 400) clientErrors++;
+            else ok++;
+        }
+
+        void merge(EndpointStats other) {
+            if (count + other.count > latencies.length) {
+                latencies = Arrays.copyOf(latencies, Math.max(latencies.length * 2, count + other.count));
+            }
+            System.arraycopy(other.latencies, 0, latencies, count, other.count);
+            count += other.count;
+            ok += other.ok;
+            clientErrors += other.clientErrors;
+            serverErrors += other.serverErrors;
+            transportErrors += other.transportErrors;
+        }
+    }
+
+    private static final class Report {
+        private final long elapsedNanos;
+        private final Map<String, EndpointStats> byEndpoint = new TreeMap<>();
+        private final EndpointStats overall = new EndpointStats("ALL");
+
+        Report(long elapsedNanos) {
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        void merge(String endpoint, EndpointStats stats) {
+            byEndpoint.computeIfAbsent(endpoint, EndpointStats::new).merge(stats);
+            overall.merge(stats);
+        }
+
+        void print(java.io.PrintStream out) {
+            double seconds = elapsedNanos / 1e9;
+            out.printf("%n%-10s %9s %9s %9s %9s %9s %9s %9s %7s %7s %7s%n", "endpoint", "requests", "req/s",
+                    "p50 ms", "p90 ms", "p99 ms", "p999 ms", "max ms", "4xx", "5xx", "io err");
+            for (EndpointStats s : byEndpoint.values()) line(out, s, seconds);
+            line(out, overall, seconds);
+            long errors = overall.serverErrors + overall.transportErrors;
+            out.printf("%nerror rate (5xx + io): %.3f%%%n", overall.count == 0 ? 0 : 100.0 * errors / overall.count);
+        }
+
+        private static void line(java.io.PrintStream out, EndpointStats s, double seconds) {
+            long[] sorted = Arrays.copyOf(s.latencies, s.count);
+            Arrays.sort(sorted);
+            Function<Double, Double> pct = q -> sorted.length == 0 ? 0
+                    : sorted[(int) Math.min(sorted.length - 1, Math.ceil(q * sorted.length) - 1)] / 1e6;
+            out.printf(Locale.ROOT, "%-10s %9d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %7d %7d %7d%n", s.endpoint, s.count,
+                    s.count / seconds, pct.apply(0.50), pct.apply(0.90), pct.apply(0.99), pct.apply(0.999),
+                    pct.apply(1.0), s.clientErrors, s.serverErrors, s.transportErrors);
+        }
+    }
+
+    private static String enc(String s) {
+        return URLEncoder.encode(s, StandardCharsets.UTF_8);
+    }
+
+    private static Duration parseDuration(String s) {
+        if (s.endsWith("ms")) return Duration.ofMillis(Long.parseLong(s.substring(0, s.length() - 2)));
+        if (s.endsWith("s")) return Duration.ofSeconds(Long.parseLong(s.substring(0, s.length() - 1)));
+        if (s.endsWith("m")) return Duration.ofMinutes(Long.parseLong(s.substring(0, s.length() - 1)));
+        return Duration.ofSeconds(Long.parseLong(s));
+    }
+
+    private static Map<String, Integer> parseMix(String s) {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        for (String part : s.split(",")) {
+            String[] kv = part.split(":");
+            mix.put(kv[0].trim(), Integer.parseInt(kv[1].trim()));
+        }
+        return mix;
+    }
+}
@@ -0,0 +1,11 @@
+package com.news.repository;
+
+import com.news.model.CorpusVersion;
+
+/** Shared corpus version, so every node sees a load made through any of them. */
+public interface CorpusVersionStore {
+
+    CorpusVersion current();
+
+    CorpusVersion increment();
+}
@@ -0,0 +1,26 @@
+package com.news.repository;
+
+import com.news.model.CorpusVersion;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+
+/** Process-local version for the {@code perf} profile, matching {@link InMemoryNewsArticleRepository}. */
+@Repository
+@Profile("perf")
+public class InMemoryCorpusVersionStore implements CorpusVersionStore {
+
+    private CorpusVersion version = new CorpusVersion(0, Instant.now());
+
+    @Override
+    public synchronized CorpusVersion current() {
+        return version;
+    }
+
+    @Override
+    public synchronized CorpusVersion increment() {
+        version = new CorpusVersion(version.version() + 1, Instant.now());
+        return version;
+    }
+}
@@ -0,0 +1,460 @@
+package com.news.repository;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.news.model.NewsArticle;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.Resource;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.data.domain.*;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.data.repository.query.FluentQuery;
+import org.springframework.stereotype.Repository;
+
+import java.beans.PropertyDescriptor;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Heap-backed {@link NewsArticleRepository} used by the {@code perf} profile so the API can be
+ * load tested without a MongoDB. The store is preloaded from {@code app.perf.seed} on startup and
+ * returns copies of stored documents, mirroring the per-query materialization a Mongo driver does.
+ */
+@Slf4j
+@Repository
+@Profile("perf")
+public class InMemoryNewsArticleRepository implements NewsArticleRepository {
+
+    private final ConcurrentSkipListMap<String, NewsArticle> store = new ConcurrentSkipListMap<>();
+    private final ObjectMapper objectMapper;
+    private final ProjectionFactory projections = new SpelAwareProxyProjectionFactory();
+    private final Resource seed;
+
+    public InMemoryNewsArticleRepository(ObjectMapper objectMapper,
+                                         @Value("${app.perf.seed:classpath:news_data.json}") Resource seed) {
+        this.objectMapper = objectMapper;
+        this.seed = seed;
+    }
+
+    @PostConstruct
+    void preload() throws IOException {
+        if (!seed.exists()) {
+            log.warn("Seed {} not found, starting with an empty in-memory repository", seed);
+            return;
+        }
+        try (InputStream in = seed.getInputStream()) {
+            List<NewsArticle> articles = objectMapper.readValue(in, new TypeReference<List<NewsArticle>>() {
+            });
+            saveAll(articles);
+            log.info("Preloaded {} articles from {}", articles.size(), seed);
+        }
+    }
+
+    // --------- Derived queries ---------
+
+    @Override
+    public Page<NewsArticle> findByCategoryIgnoreCase(String category, Pageable pageable) {
+        return page(inCategory(category), pageable);
+    }
+
+    @Override
+    public Page<NewsArticle> findBySourceNameIgnoreCase(String sourceName, Pageable pageable) {
+        return page(fromSource(sourceName), pageable);
+    }
+
+    @Override
+    public Page<NewsArticle> findByRelevanceScoreGreaterThanEqual(double relevanceScore, Pageable pageable) {
+        return page(scoredAtLeast(relevanceScore), pageable);
+    }
+
+    @Override
+    public Page<NewsArticle> searchByText(String regex, Pageable pageable) {
+        Pattern pattern = Pattern.compile(regex, Pattern.CASE_INSENSITIVE);
+        return page(a -> (a.getTitle() != null && pattern.matcher(a.getTitle()).find())
+                || (a.getDescription() != null && pattern.matcher(a.getDescription()).find()), pageable);
+    }
+
+    @Override
+    public List<NewsArticle> findDuplicateCandidates(Collection<Long> bands, Limit limit) {
+        Set<Long> keys = new HashSet<>(bands);
+        return store.values().stream()
+                .filter(a -> a.getLshBands() != null && a.getLshBands().stream().anyMatch(keys::contains))
+                .limit(limit.isLimited() ? limit.max() : Long.MAX_VALUE)
+                .map(a -> NewsArticle.builder()
+                        .id(a.getId())
+                        .minhash(a.getMinhash() == null ? null : a.getMinhash().clone())
+                        .clusterId(a.getClusterId())
+                        .build())
+                .toList();
+    }
+
+    // --------- Streams (lazy, one copy at a time like a cursor) ---------
+
+    @Override
+    public Stream<NewsArticle> streamAllBy() {
+        return stream(a -> true);
+    }
+
+    @Override
+    public Stream<NewsArticle> streamByCategoryIgnoreCase(String category) {
+        return stream(inCategory(category));
+    }
+
+    @Override
+    public Stream<NewsArticle> streamBySourceNameIgnoreCase(String sourceName) {
+        return stream(fromSource(sourceName));
+    }
+
+    @Override
+    public Stream<NewsArticle> streamByRelevanceScoreGreaterThanEqual(double relevanceScore) {
+        return stream(scoredAtLeast(relevanceScore));
+    }
+
+    // --------- CRUD ---------
+
+    @Override
+    public <S extends NewsArticle> S save(S entity) {
+        if (entity.getId() == null) entity.setId(UUID.randomUUID().toString());
+        store.put(entity.getId(), copy(entity));
+        return entity;
+    }
+
+    @Override
+    public <S extends NewsArticle> List<S> saveAll(Iterable<S> entities) {
+        List<S> saved = new ArrayList<>();
+        for (S e : entities) saved.add(save(e));
+        return saved;
+    }
+
+    @Override
+    public <S extends NewsArticle> S insert(S entity) {
+        if (entity.getId() != null && store.containsKey(entity.getId())) {
+            throw new IllegalStateException("Duplicate key: " + entity.getId());
+        }
+        return save(entity);
+    }
+
+    @Override
+    public <S extends NewsArticle> List<S> insert(Iterable<S> entities) {
+        List<S> inserted = new ArrayList<>();
+        for (S e : entities) inserted.add(insert(e));
+        return inserted;
+    }
+
+    @Override
+    public Optional<NewsArticle> findById(String id) {
+        return Optional.ofNullable(store.get(id)).map(InMemoryNewsArticleRepository::copy);
+    }
+
+    @Override
+    public boolean existsById(String id) {
+        return store.containsKey(id);
+    }
+
+    @Override
+    public List<NewsArticle> findAll() {
+        return store.values().stream().map(InMemoryNewsArticleRepository::copy).toList();
+    }
+
+    @Override
+    public List<NewsArticle> findAllById(Iterable<String> ids) {
+        return StreamSupport.stream(ids.spliterator(), false)
+                .map(store::get)
+                .filter(Objects::nonNull)
+                .map(InMemoryNewsArticleRepository::copy)
+                .toList();
+    }
+
+    @Override
+    public List<NewsArticle> findAll(Sort sort) {
+        return store.values().stream().sorted(comparator(sort)).map(InMemoryNewsArticleRepository::copy).toList();
+    }
+
+    @Override
+    public Page<NewsArticle> findAll(Pageable pageable) {
+        return page(a -> true, pageable);
+    }
+
+    @Override
+    public long count() {
+        return store.size();
+    }
+
+    @Override
+    public void deleteById(String id) {
+        store.remove(id);
+    }
+
+    @Override
+    public void delete(NewsArticle entity) {
+        store.remove(entity.getId());
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends String> ids) {
+        ids.forEach(store::remove);
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends NewsArticle> entities) {
+        entities.forEach(this::delete);
+    }
+
+    @Override
+    public void deleteAll() {
+        store.clear();
+    }
+
+    // --------- Query by example ---------
+
+    @Override
+    public <S extends NewsArticle> Optional<S> findOne(Example<S> example) {
+        return this.<S>query(example).one();
+    }
+
+    @Override
+    public <S extends NewsArticle> List<S> findAll(Example<S> example) {
+        return this.<S>query(example).all();
+    }
+
+    @Override
+    public <S extends NewsArticle> List<S> findAll(Example<S> example, Sort sort) {
+        return this.<S>query(example).sortBy(sort).all();
+    }
+
+    @Override
+    public <S extends NewsArticle> Page<S> findAll(Example<S> example, Pageable pageable) {
+        return this.<S>query(example).page(pageable);
+    }
+
+    @Override
+    public <S extends NewsArticle> long count(Example<S> example) {
+        return query(example).count();
+    }
+
+    @Override
+    public <S extends NewsArticle> boolean exists(Example<S> example) {
+        return query(example).exists();
+    }
+
+    @Override
+    public <S extends NewsArticle, R> R findBy(Example<S> example, Function<FluentQuery.FetchableFluentQuery<S>, R> queryFunction) {
+        return queryFunction.apply(query(example));
+    }
+
+
+    private static Predicate<NewsArticle> inCategory(String category) {
+        return a -> a.getCategory() != null && a.getCategory().stream().anyMatch(c -> c.equalsIgnoreCase(category));
+    }
+
+    private static Predicate<NewsArticle> fromSource(String sourceName) {
+        return a -> sourceName.equalsIgnoreCase(a.getSourceName());
+    }
+
+    private static Predicate<NewsArticle> scoredAtLeast(double relevanceScore) {
+        return a -> a.getRelevanceScore() >= relevanceScore;
+    }
+
+    private Stream<NewsArticle> stream(Predicate<NewsArticle> filter) {
+        return store.values().stream().filter(filter).map(InMemoryNewsArticleRepository::copy);
+    }
+
+    private Page<NewsArticle> page(Predicate<NewsArticle> filter, Pageable pageable) {
+        Stream<NewsArticle> matches = store.values().stream().filter(filter);
+        if (pageable.getSort().isSorted()) matches = matches.sorted(comparator(pageable.getSort()));
+        List<NewsArticle> all = matches.toList();
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(all.stream().map(InMemoryNewsArticleRepository::copy).toList(), pageable, all.size());
+        }
+        List<NewsArticle> content = all.stream()
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .map(InMemoryNewsArticleRepository::copy)
+                .toList();
+        return new PageImpl<>(content, pageable, all.size());
+    }
+
+    private <T> ExampleQuery<T> query(Example<? extends NewsArticle> example) {
+        return new ExampleQuery<>(matches(example), Sort.unsorted(), 0, a -> {
+            @SuppressWarnings("unchecked")
+            T t = (T) a;
+            return t;
+        });
+    }
+
+    /**
+     * Same semantics as Spring Data's Mongo query by example: every non-null probe property (primitives always
+     * count) must match, or any one of them for {@code matchingAny()}; string matchers, case handling, value
+     * transformers and ignored paths of the {@link ExampleMatcher} are honoured.
+     */
+    private static Predicate<NewsArticle> matches(Example<? extends NewsArticle> example) {
+        ExampleMatcher matcher = example.getMatcher();
+        BeanWrapper probe = new BeanWrapperImpl(example.getProbe());
+        List<Predicate<NewsArticle>> conditions = new ArrayList<>();
+        for (PropertyDescriptor property : probe.getPropertyDescriptors()) {
+            String path = property.getName();
+            if ("class".equals(path) || "uniqueUsers".equals(path) || matcher.isIgnoredPath(path)) continue;
+            ExampleMatcher.PropertySpecifier spec = matcher.getPropertySpecifiers().getForPath(path);
+            Optional<Object> expected = transform(spec, probe.getPropertyValue(path));
+            if (expected.isEmpty() && matcher.getNullHandler() == ExampleMatcher.NullHandler.IGNORE) continue;
+            ExampleMatcher.StringMatcher stringMatcher = spec != null && spec.getStringMatcher() != null
+                    ? spec.getStringMatcher() : matcher.getDefaultStringMatcher();
+            boolean ignoreCase = spec != null && spec.getIgnoreCase() != null ? spec.getIgnoreCase() : matcher.isIgnoreCaseEnabled();
+            conditions.add(a -> valueMatches(transform(spec, new BeanWrapperImpl(a).getPropertyValue(path)).orElse(null),
+                    expected.orElse(null), stringMatcher, ignoreCase));
+        }
+        return matcher.isAllMatching()
+                ? a -> conditions.stream().allMatch(c -> c.test(a))
+                : a -> conditions.isEmpty() || conditions.stream().anyMatch(c -> c.test(a));
+    }
+
+    private static Optional<Object> transform(ExampleMatcher.PropertySpecifier spec, Object value) {
+        Optional<Object> v = Optional.ofNullable(value);
+        return spec == null ? v : spec.getPropertyValueTransformer().apply(v);
+    }
+
+    private static boolean valueMatches(Object actual, Object expected, ExampleMatcher.StringMatcher matcher, boolean ignoreCase) {
+        if (!(expected instanceof String e) || !(actual instanceof String a)) {
+            return Objects.deepEquals(actual, expected);
+        }
+        if (ignoreCase && matcher != ExampleMatcher.StringMatcher.REGEX) {
+            a = a.toLowerCase(Locale.ROOT);
+            e = e.toLowerCase(Locale.ROOT);
+        }
+        return switch (matcher) {
+            case DEFAULT, EXACT -> a.equals(e);
+            case STARTING -> a.startsWith(e);
+            case ENDING -> a.endsWith(e);
+            case CONTAINING -> a.contains(e);
+            case REGEX -> Pattern.compile(e, ignoreCase ? Pattern.CASE_INSENSITIVE : 0).matcher(a).find();
+        };
+    }
+
+    /** Fluent query over the store; {@code project} is only a hint, so all properties are always present. */
+    private class ExampleQuery<T> implements FluentQuery.FetchableFluentQuery<T> {
+        private final Predicate<NewsArticle> filter;
+        private final Sort sort;
+        private final int limit;
+        private final Function<NewsArticle, T> mapper;
+
+        ExampleQuery(Predicate<NewsArticle> filter, Sort sort, int limit, Function<NewsArticle, T> mapper) {
+            this.filter = filter;
+            this.sort = sort;
+            this.limit = limit;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public FluentQuery.FetchableFluentQuery<T> sortBy(Sort sort) {
+            return new ExampleQuery<>(filter, this.sort.and(sort), limit, mapper);
+        }
+
+        @Override
+        public FluentQuery.FetchableFluentQuery<T> limit(int limit) {
+            return new ExampleQuery<>(filter, sort, limit, mapper);
+        }
+
+        @Override
+        public <R> FluentQuery.FetchableFluentQuery<R> as(Class<R> resultType) {
+            Function<NewsArticle, R> convert;
+            if (resultType.isAssignableFrom(NewsArticle.class)) convert = resultType::cast;
+            else if (resultType.isInterface()) convert = a -> projections.createProjection(resultType, a);
+            else convert = a -> objectMapper.convertValue(a, resultType);
+            return new ExampleQuery<>(filter, sort, limit, convert);
+        }
+
+        @Override
+        public FluentQuery.FetchableFluentQuery<T> project(Collection<String> properties) {
+            return this;
+        }
+
+        @Override
+        public T oneValue() {
+            List<T> matches = stream().limit(2).toList();
+            if (matches.size() > 1) throw new IncorrectResultSizeDataAccessException(1);
+            return matches.isEmpty() ? null : matches.get(0);
+        }
+
+        @Override
+        public T firstValue() {
+            return stream().findFirst().orElse(null);
+        }
+
+        @Override
+        public List<T> all() {
+            return stream().toList();
+        }
+
+        @Override
+        public Page<T> page(Pageable pageable) {
+            Page<NewsArticle> page = InMemoryNewsArticleRepository.this.page(filter,
+                    pageable.isPaged() && sort.isSorted() && pageable.getSort().isUnsorted()
+                            ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort) : pageable);
+            return page.map(mapper);
+        }
+
+        @Override
+        public Stream<T> stream() {
+            Stream<NewsArticle> matches = store.values().stream().filter(filter);
+            if (sort.isSorted()) matches = matches.sorted(comparator(sort));
+            if (limit > 0) matches = matches.limit(limit);
+            return matches.map(InMemoryNewsArticleRepository::copy).map(mapper);
+        }
+
+        @Override
+        public long count() {
+            return store.values().stream().filter(filter).count();
+        }
+
+        @Override
+        public boolean exists() {
+            return store.values().stream().anyMatch(filter);
+        }
+    }
+
+    private static Comparator<NewsArticle> comparator(Sort sort) {
+        Comparator<NewsArticle> result = (a, b) -> 0;
+        for (Sort.Order order : sort) {
+            Comparator<NewsArticle> c = switch (order.getProperty()) {
+                case "publicationDate" -> Comparator.comparing(NewsArticle::getPublicationDate, Comparator.nullsFirst(Comparator.naturalOrder()));
+                case "relevanceScore" -> Comparator.comparingDouble(NewsArticle::getRelevanceScore);
+                case "id" -> Comparator.comparing(NewsArticle::getId);
+                default -> throw new IllegalArgumentException("Unsupported sort property: " + order.getProperty());
+            };
+            result = result.thenComparing(order.isDescending() ? c.reversed() : c);
+        }
+        return result;
+    }
+
+    private static NewsArticle copy(NewsArticle a) {
+        return NewsArticle.builder()
+                .id(a.getId())
+                .title(a.getTitle())
+                .description(a.getDescription())
+                .url(a.getUrl())
+                .publicationDate(a.getPublicationDate())
+                .sourceName(a.getSourceName())
+                .category(a.getCategory() == null ? null : List.copyOf(a.getCategory()))
+                .relevanceScore(a.getRelevanceScore())
+                .latitude(a.getLatitude())
+                .longitude(a.getLongitude())
+                .llmSummary(a.getLlmSummary())
+                .minhash(a.getMinhash() == null ? null : a.getMinhash().clone())
+                .lshBands(a.getLshBands() == null ? null : List.copyOf(a.getLshBands()))
+                .clusterId(a.getClusterId())
+                .build();
+    }
+}
@@ -0,0 +1,93 @@
+package com.news.repository;
+
+import com.news.model.CorpusVersion;
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.ReturnDocument;
+import com.mongodb.client.model.Updates;
+import jakarta.annotation.PreDestroy;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoConnectionDetails;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the version in a single {@code corpus_version} document, bumped atomically with {@code $inc}. The
+ * scheduled {@link #current()} poll uses its own small client whose server selection, connect, socket and
+ * server-side timeouts are all {@code app.corpus.versionReadTimeoutMs}, so it fails fast when MongoDB is
+ * unreachable instead of waiting out the shared client's 30 s server selection.
+ */
+@Repository
+@Profile("!perf")
+public class MongoCorpusVersionStore implements CorpusVersionStore {
+
+    private static final String COLLECTION = "corpus_version";
+    private static final Query CORPUS = Query.query(Criteria.where("_id").is("corpus"));
+    private static final Bson CORPUS_FILTER = Filters.eq("_id", "corpus");
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoClient pollClient;
+    private final MongoCollection<Document> pollCollection;
+    private final long readTimeoutMs;
+
+    public MongoCorpusVersionStore(MongoTemplate mongoTemplate, MongoConnectionDetails connectionDetails,
+                                   @Value("${app.corpus.versionReadTimeoutMs:1000}") long readTimeoutMs) {
+        this.mongoTemplate = mongoTemplate;
+        this.readTimeoutMs = readTimeoutMs;
+        ConnectionString connection = connectionDetails.getConnectionString();
+        this.pollClient = MongoClients.create(MongoClientSettings.builder()
+                .applyConnectionString(connection)
+                .applyToConnectionPoolSettings(pool -> pool.maxSize(1))
+                .applyToClusterSettings(cluster -> cluster.serverSelectionTimeout(readTimeoutMs, TimeUnit.MILLISECONDS))
+                .applyToSocketSettings(socket -> socket
+                        .connectTimeout((int) readTimeoutMs, TimeUnit.MILLISECONDS)
+                        .readTimeout((int) readTimeoutMs, TimeUnit.MILLISECONDS))
+                .build());
+        this.pollCollection = pollClient.getDatabase(mongoTemplate.getDb().getName()).getCollection(COLLECTION);
+    }
+
+    @Override
+    public CorpusVersion current() {
+        Document doc = pollCollection.find(CORPUS_FILTER).maxTime(readTimeoutMs, TimeUnit.MILLISECONDS).first();
+        if (doc == null) {
+            // created on first read so all nodes agree on the initial version
+            Bson init = Updates.combine(Updates.setOnInsert("version", 0L), Updates.setOnInsert("updatedAt", new Date()));
+            doc = pollCollection.findOneAndUpdate(CORPUS_FILTER, init, new FindOneAndUpdateOptions()
+                    .upsert(true)
+                    .returnDocument(ReturnDocument.AFTER)
+                    .maxTime(readTimeoutMs, TimeUnit.MILLISECONDS));
+        }
+        return toVersion(doc);
+    }
+
+    @Override
+    public CorpusVersion increment() {
+        Update bump = new Update().inc("version", 1L).set("updatedAt", new Date());
+        return toVersion(mongoTemplate.findAndModify(CORPUS, bump,
+                FindAndModifyOptions.options().upsert(true).returnNew(true), Document.class, COLLECTION));
+    }
+
+    @PreDestroy
+    void close() {
+        pollClient.close();
+    }
+
+    private static CorpusVersion toVersion(Document doc) {
+        return new CorpusVersion(doc.get("version", Number.class).longValue(), doc.getDate("updatedAt").toInstant());
+    }
+}
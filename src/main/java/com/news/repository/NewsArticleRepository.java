@@ -1,12 +1,18 @@
 package com.news.repository;
 
 import com.news.model.NewsArticle;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.Meta;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
 @Repository
 public interface NewsArticleRepository extends MongoRepository<NewsArticle, String> {
     Page<NewsArticle> findByCategoryIgnoreCase(String category, Pageable pageable);
@@ -18,4 +24,23 @@ public interface NewsArticleRepository extends MongoRepository<NewsArticle, Stri
 
     @Query("{ $or: [ { title: { $regex: ?0, $options: 'i' } }, { description: { $regex: ?0, $options: 'i' } } ] }")
     Page<NewsArticle> searchByText(String regex, Pageable pageable);
-}
\ No newline at end of file
+
+
+    // Near-duplicate candidates: cluster heads sharing at least one LSH band key (indexed), with only the
+    // fields needed to compare signatures
+    @Query(value = "{ lshBands: { $in: ?0 } }", fields = "{ minhash: 1, clusterId: 1 }")
+    List<NewsArticle> findDuplicateCandidates(Collection<Long> bands, Limit limit);
+
+    // Cursor-backed streams for exports; the caller must close them. Small batches keep memory flat.
+    @Meta(cursorBatchSize = 256)
+    Stream<NewsArticle> streamAllBy();
+
+    @Meta(cursorBatchSize = 256)
+    Stream<NewsArticle> streamByCategoryIgnoreCase(String category);
+
+    @Meta(cursorBatchSize = 256)
+    Stream<NewsArticle> streamBySourceNameIgnoreCase(String sourceName);
+
+    @Meta(cursorBatchSize = 256)
+    Stream<NewsArticle> streamByRelevanceScoreGreaterThanEqual(double relevanceScore);
+}
@@ -0,0 +1,299 @@
+package com.news.repository;
+
+import com.news.dto.TrendingEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of {@link TrendingEvent}s in fixed-size, memory-mapped segment files.
+ *
+ * <pre>
+ * record  := length:int crc32:int payload
+ * payload := timestampMillis:long latitude:double longitude:double type:byte
+ *            articleIdLength:short articleId:utf8 userIdLength:short userId:utf8
+ * </pre>
+ *
+ * Segments are preallocated with zeros, so a zero length marks the end of written data and a CRC mismatch
+ * marks a torn write; both end a scan. Writes land in the page cache immediately and are forced to disk
+ * every {@code app.trending.log.flushIntervalMs}, outside the append monitor. Segments are unmapped before
+ * they are deleted so their disk space is released right away rather than whenever the buffers are collected.
+ */
+@Slf4j
+@Repository
+public class TrendingEventLog {
+
+    public static final int MAX_ID_BYTES = 1024;
+
+    private static final int HEADER_BYTES = 8;
+    private static final int FIXED_PAYLOAD_BYTES = 8 + 8 + 8 + 1 + 2 + 2;
+    private static final byte TYPE_OTHER = 0;
+    private static final byte TYPE_VIEW = 1;
+    private static final byte TYPE_CLICK = 2;
+    private static final MethodHandle INVOKE_CLEANER = invokeCleaner();
+
+    private final Path dir;
+    private final int segmentBytes;
+    private final ByteBuffer scratch = ByteBuffer.allocate(HEADER_BYTES + FIXED_PAYLOAD_BYTES + 2 * MAX_ID_BYTES);
+    private final CRC32 crc = new CRC32();
+
+    private long segment;
+    private MappedByteBuffer active;
+    // rolled-over segments still mapped, unmapped by deleteBefore
+    private final NavigableMap<Long, MappedByteBuffer> retired = new TreeMap<>();
+    // guards force() against unmapping; segments below unmappedBelow must not be touched
+    private final Object forceLock = new Object();
+    private long unmappedBelow;
+
+    /** Offset just past the last record read or written. */
+    public record Position(long segment, int offset) {
+        public static final Position START = new Position(0, 0);
+    }
+
+    public TrendingEventLog(@Value("${app.trending.log.dir:data/trending}") Path dir,
+                            @Value("${app.trending.log.segmentBytes:67108864}") int segmentBytes) {
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+    }
+
+    @PostConstruct
+    synchronized void open() throws IOException {
+        Files.createDirectories(dir);
+        List<Long> segments = segments();
+        if (segments.isEmpty()) {
+            roll(0);
+            return;
+        }
+        segment = segments.get(segments.size() - 1);
+        active = map(segment, FileChannel.MapMode.READ_WRITE, segmentBytes);
+        int end = scan(active, 0, null);
+        if (end + 4 <= active.limit() && active.getInt(end) != 0) {
+            log.warn("Discarding torn record at {}:{}", segment, end);
+            for (int i = end; i < active.limit(); i++) active.put(i, (byte) 0);
+        }
+        active.position(end);
+    }
+
+    public synchronized Position append(TrendingEvent e) {
+        byte[] articleId = bytes(e.getArticleId());
+        byte[] userId = bytes(e.getUserId());
+        if (articleId.length > MAX_ID_BYTES || userId.length > MAX_ID_BYTES) {
+            throw new IllegalArgumentException("Event ids must be at most " + MAX_ID_BYTES + " bytes");
+        }
+        int payload = FIXED_PAYLOAD_BYTES + articleId.length + userId.length;
+
+        scratch.clear();
+        scratch.position(HEADER_BYTES);
+        scratch.putLong(e.getTimestamp().toEpochMilli())
+                .putDouble(e.getLatitude())
+                .putDouble(e.getLongitude())
+                .put(encodeType(e.getType()))
+                .putShort((short) articleId.length).put(articleId)
+                .putShort((short) userId.length).put(userId);
+        crc.reset();
+        crc.update(scratch.array(), HEADER_BYTES, payload);
+        scratch.putInt(0, payload).putInt(4, (int) crc.getValue());
+        scratch.flip();
+
+        if (active.remaining() < scratch.remaining()) {
+            try {
+                roll(segment + 1);
+            } catch (IOException ex) {
+                throw new IllegalStateException("Cannot roll trending event log in " + dir, ex);
+            }
+        }
+        active.put(scratch);
+        return new Position(segment, active.position());
+    }
+
+    public synchronized Position position() {
+        return new Position(segment, active.position());
+    }
+
+    @Scheduled(fixedDelayString = "${app.trending.log.flushIntervalMs:1000}")
+    @PreDestroy
+    public void flush() {
+        MappedByteBuffer buffer;
+        long id;
+        synchronized (this) {
+            buffer = active;
+            id = segment;
+        }
+        if (buffer == null) return;
+        synchronized (forceLock) {
+            if (id >= unmappedBelow) buffer.force();
+        }
+    }
+
+    /** Feeds every record after {@code from} to the consumer; returns the number of records replayed. */
+    public long replay(Position from, Consumer<TrendingEvent> consumer) throws IOException {
+        long[] count = {0};
+        Consumer<TrendingEvent> counting = e -> {
+            consumer.accept(e);
+            count[0]++;
+        };
+        for (long id : segments()) {
+            if (id < from.segment()) continue;
+            MappedByteBuffer buffer = map(id, FileChannel.MapMode.READ_ONLY, Files.size(segmentPath(id)));
+            try {
+                scan(buffer, id == from.segment() ? from.offset() : 0, counting);
+            } finally {
+                unmap(buffer);
+            }
+        }
+        return count[0];
+    }
+
+    /** Removes segments that only hold records before {@code position}; the active segment is never removed. */
+    public void deleteBefore(Position position) throws IOException {
+        long below;
+        List<MappedByteBuffer> unmap;
+        synchronized (this) {
+            below = Math.min(position.segment(), segment);
+            Map<Long, MappedByteBuffer> head = retired.headMap(below);
+            unmap = List.copyOf(head.values());
+            head.clear();
+        }
+        synchronized (forceLock) {
+            unmappedBelow = Math.max(unmappedBelow, below);
+            unmap.forEach(TrendingEventLog::unmap);
+        }
+        for (long id : segments()) {
+            if (id < below) Files.deleteIfExists(segmentPath(id));
+        }
+    }
+
+
+    private int scan(ByteBuffer buffer, int offset, Consumer<TrendingEvent> consumer) {
+        CRC32 check = new CRC32();
+        int pos = offset;
+        while (pos + HEADER_BYTES <= buffer.limit()) {
+            int length = buffer.getInt(pos);
+            if (length < FIXED_PAYLOAD_BYTES || pos + HEADER_BYTES + length > buffer.limit()) break;
+            ByteBuffer payload = buffer.duplicate().position(pos + HEADER_BYTES).limit(pos + HEADER_BYTES + length);
+            check.reset();
+            check.update(payload.duplicate());
+            if ((int) check.getValue() != buffer.getInt(pos + 4)) break;
+            if (consumer != null) consumer.accept(decode(payload));
+            pos += HEADER_BYTES + length;
+        }
+        return pos;
+    }
+
+    private static TrendingEvent decode(ByteBuffer payload) {
+        TrendingEvent e = new TrendingEvent();
+        e.setTimestamp(Instant.ofEpochMilli(payload.getLong()));
+        e.setLatitude(payload.getDouble());
+        e.setLongitude(payload.getDouble());
+        e.setType(decodeType(payload.get()));
+        e.setArticleId(string(payload));
+        String userId = string(payload);
+        e.setUserId(userId.isEmpty() ? null : userId);
+        return e;
+    }
+
+    private void roll(long next) throws IOException {
+        if (active != null) {
+            active.force();
+            retired.put(segment, active);
+        }
+        segment = next;
+        active = map(next, FileChannel.MapMode.READ_WRITE, segmentBytes);
+    }
+
+    private MappedByteBuffer map(long id, FileChannel.MapMode mode, long size) throws IOException {
+        StandardOpenOption[] options = mode == FileChannel.MapMode.READ_ONLY
+                ? new StandardOpenOption[]{StandardOpenOption.READ}
+                : new StandardOpenOption[]{StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE};
+        // the mapping stays valid after the channel is closed
+        try (FileChannel channel = FileChannel.open(segmentPath(id), options)) {
+            return channel.map(mode, 0, size);
+        }
+    }
+
+    // Unmaps eagerly where the JDK allows it; callers must guarantee the buffer is not used afterwards
+    private static void unmap(MappedByteBuffer buffer) {
+        if (INVOKE_CLEANER == null) return;
+        try {
+            INVOKE_CLEANER.invokeExact((ByteBuffer) buffer);
+        } catch (Throwable t) {
+            log.warn("Cannot unmap trending event log segment: {}", t.toString());
+        }
+    }
+
+    private static MethodHandle invokeCleaner() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            return MethodHandles.lookup()
+                    .findVirtual(unsafeClass, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+                    .bindTo(theUnsafe.get(null));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            log.info("Segments will be unmapped by the garbage collector: {}", e.toString());
+            return null;
+        }
+    }
+
+    private List<Long> segments() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.map(p -> p.getFileName().toString())
+                    .filter(name -> name.matches("\\d{20}\\.log"))
+                    .map(name -> Long.parseLong(name.substring(0, 20)))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private Path segmentPath(long id) {
+        return dir.resolve(String.format("%020d.log", id));
+    }
+
+    private static byte encodeType(String type) {
+        if ("click".equals(type)) return TYPE_CLICK;
+        if ("view".equals(type)) return TYPE_VIEW;
+        return TYPE_OTHER;
+    }
+
+    private static String decodeType(byte type) {
+        return switch (type) {
+            case TYPE_CLICK -> "click";
+            case TYPE_VIEW -> "view";
+            default -> "other";
+        };
+    }
+
+    private static byte[] bytes(String s) {
+        return s == null ? new byte[0] : s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String string(ByteBuffer buffer) {
+        byte[] b = new byte[Short.toUnsignedInt(buffer.getShort())];
+        buffer.get(b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+}
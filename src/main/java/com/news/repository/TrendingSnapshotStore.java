@@ -0,0 +1,74 @@
+package com.news.repository;
+
+import com.news.model.TrendingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+/**
+ * Persists a {@link TrendingState} together with the {@link TrendingEventLog.Position} it covers, so a
+ * restart only has to replay the log tail. Snapshots are written to a temp file, forced to disk and atomically
+ * renamed. A snapshot that cannot be read is moved aside, and the state is rebuilt from whatever log remains.
+ */
+@Slf4j
+@Repository
+public class TrendingSnapshotStore {
+
+    private static final int MAGIC = 0x54524e44; // "TRND"
+
+    private final Path file;
+
+    public TrendingSnapshotStore(@Value("${app.trending.log.dir:data/trending}") Path dir) {
+        this.file = dir.resolve("trending.snapshot");
+    }
+
+    public void save(TrendingState state, TrendingEventLog.Position position) throws IOException {
+        Files.createDirectories(file.getParent());
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            out.writeInt(MAGIC);
+            out.writeInt(TrendingState.FORMAT_VERSION);
+            out.writeLong(position.segment());
+            out.writeInt(position.offset());
+            state.writeTo(out);
+            out.flush();
+            // the log segments this snapshot covers are deleted next, so it must be on disk before the rename
+            channel.force(true);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Loads the latest snapshot into {@code state} and returns where replay should resume. Empty if there is no
+     * usable snapshot; an unreadable one is renamed to {@code trending.snapshot.corrupt-<millis>} and
+     * {@code state} may hold part of it, so the caller should start from a fresh state.
+     */
+    public Optional<TrendingEventLog.Position> load(TrendingState state) throws IOException {
+        if (!Files.exists(file)) return Optional.empty();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Unrecognized trending snapshot format in " + file);
+            }
+            int version = in.readInt();
+            TrendingEventLog.Position position = new TrendingEventLog.Position(in.readLong(), in.readInt());
+            state.readFrom(in, version);
+            return Optional.of(position);
+        } catch (IOException | RuntimeException ex) {
+            Path aside = file.resolveSibling(file.getFileName() + ".corrupt-" + System.currentTimeMillis());
+            Files.move(file, aside, StandardCopyOption.REPLACE_EXISTING);
+            log.warn("Cannot read trending snapshot, moved it to {} and rebuilding from the remaining log: {}", aside, ex.toString());
+            return Optional.empty();
+        }
+    }
+}
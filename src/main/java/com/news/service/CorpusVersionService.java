@@ -0,0 +1,66 @@
+package com.news.service;
+
+import com.news.model.CorpusVersion;
+import com.news.repository.CorpusVersionStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Local view of the shared {@link CorpusVersion}. It is bumped by admin loads on this node and polled
+ * every {@code app.corpus.versionPollMs} to pick up loads made on other nodes. Feed responses are cached
+ * under keys that include the version; entries of older versions, and cluster summaries, are dropped when it changes.
+ */
+@Slf4j
+@Service
+public class CorpusVersionService {
+
+    public static final String FEEDS_CACHE = "feeds";
+    // Summaries per near-duplicate cluster; still valid after a reload, but cleared with it to stay bounded
+    public static final String SUMMARIES_CACHE = "summaries";
+
+    @Autowired
+    private CorpusVersionStore store;
+    @Autowired
+    private CacheManager cacheManager;
+
+    // Until the store has been read, a placeholder that cannot collide with a stored version
+    private volatile CorpusVersion current = new CorpusVersion(-1, Instant.now().truncatedTo(ChronoUnit.SECONDS));
+
+    public CorpusVersion current() {
+        return current;
+    }
+
+    public CorpusVersion increment() {
+        CorpusVersion next = store.increment();
+        update(next);
+        return next;
+    }
+
+    @Scheduled(fixedDelayString = "${app.corpus.versionPollMs:5000}")
+    public void refresh() {
+        try {
+            update(store.current());
+        } catch (Exception ex) {
+            log.warn("Could not read corpus version: {}", ex.toString());
+        }
+    }
+
+    private synchronized void update(CorpusVersion next) {
+        if (next.equals(current)) return;
+        // versions only move forward; ignore a poll that raced with a newer local bump
+        if (current.version() >= 0 && next.version() < current.version()) return;
+        current = next;
+        for (String name : new String[]{FEEDS_CACHE, SUMMARIES_CACHE}) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache != null) cache.clear();
+        }
+        log.info("Corpus version is now {} (updated {})", next.version(), next.updatedAt());
+    }
+}
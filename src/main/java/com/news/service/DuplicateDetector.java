@@ -0,0 +1,73 @@
+package com.news.service;
+
+import com.news.model.MinHash;
+import com.news.model.NewsArticle;
+import com.news.repository.NewsArticleRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Assigns articles to near-duplicate clusters (the same story from several sources) at load time. Only cluster
+ * heads keep their LSH band keys, so a lookup touches at most {@code app.dedup.maxCandidates} heads sharing a
+ * band rather than every copy of a popular story; the most similar one with an estimated word Jaccard of at
+ * least {@code app.dedup.minSimilarity} gives the cluster.
+ */
+@Component
+public class DuplicateDetector {
+
+    private final NewsArticleRepository repo;
+    private final boolean enabled;
+    private final int hashes;
+    private final int bands;
+    private final double minSimilarity;
+    private final Limit maxCandidates;
+
+    public DuplicateDetector(NewsArticleRepository repo,
+                             @Value("${app.dedup.enabled:true}") boolean enabled,
+                             @Value("${app.dedup.hashes:80}") int hashes,
+                             @Value("${app.dedup.bands:20}") int bands,
+                             @Value("${app.dedup.minSimilarity:0.6}") double minSimilarity,
+                             @Value("${app.dedup.maxCandidates:64}") int maxCandidates) {
+        if (bands < 1 || bands > 255 || hashes % bands != 0) {
+            throw new IllegalArgumentException("app.dedup.hashes must be a multiple of app.dedup.bands (1-255)");
+        }
+        this.repo = repo;
+        this.enabled = enabled;
+        this.hashes = hashes;
+        this.bands = bands;
+        this.minSimilarity = minSimilarity;
+        this.maxCandidates = Limit.of(maxCandidates);
+    }
+
+    /**
+     * Fingerprints {@code article} and sets its cluster to that of its most similar earlier near-duplicate.
+     * Returns whether one was found; if not, the caller makes the article the head of a new cluster, and its
+     * band keys are kept for later lookups. Articles without words to fingerprint are never clustered.
+     */
+    public boolean assignCluster(NewsArticle article) {
+        article.setMinhash(null);
+        article.setLshBands(null);
+        if (!enabled) return false;
+        int[] signature = MinHash.signature(Objects.toString(article.getTitle(), "") + " "
+                + Objects.toString(article.getDescription(), ""), hashes);
+        if (signature == null) return false;
+        List<Long> keys = MinHash.bands(signature, bands);
+        article.setMinhash(signature);
+        NewsArticle nearest = repo.findDuplicateCandidates(keys, maxCandidates).stream()
+                .filter(c -> c.getMinhash() != null && !Objects.equals(c.getId(), article.getId()))
+                .filter(c -> MinHash.similarity(signature, c.getMinhash()) >= minSimilarity)
+                .max(Comparator.comparingDouble((NewsArticle c) -> MinHash.similarity(signature, c.getMinhash())))
+                .orElse(null);
+        if (nearest == null) {
+            article.setLshBands(keys);
+            return false;
+        }
+        article.setClusterId(nearest.getClusterId() != null ? nearest.getClusterId() : nearest.getId());
+        return true;
+    }
+}
@@ -0,0 +1,98 @@
+package com.news.service;
+
+import com.news.config.RequestDeadlineFilter;
+import com.news.exception.DeadlineExceededException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Runs independent subtasks of a request in parallel with structured semantics: the caller gets all
+ * results or an exception, the first failure cancels the remaining subtasks, and nothing outlives the
+ * request deadline. Subtasks run on Boot's {@code applicationTaskExecutor}, which is backed by virtual
+ * threads when {@code spring.threads.virtual.enabled=true} on Java 21 and by a bounded platform pool otherwise.
+ */
+@Component
+public class FanOutExecutor {
+
+    private final AsyncTaskExecutor executor;
+    private final long timeoutNanos;
+
+    public FanOutExecutor(@Qualifier("applicationTaskExecutor") AsyncTaskExecutor executor,
+                          @Value("${app.request.timeoutMs:10000}") long timeoutMs) {
+        this.executor = executor;
+        this.timeoutNanos = timeoutMs * 1_000_000L;
+    }
+
+    public <T> List<T> invokeAll(List<Callable<T>> tasks) {
+        return invokeAll(tasks, RequestDeadlineFilter.currentDeadline().orElse(System.nanoTime() + timeoutNanos));
+    }
+
+    /**
+     * For requests that legitimately outlive the request deadline (streamed exports): every batch gets its
+     * own {@code app.request.timeoutMs} budget.
+     */
+    public <T> List<T> invokeBatch(List<Callable<T>> tasks) {
+        return invokeAll(tasks, System.nanoTime() + timeoutNanos);
+    }
+
+    private <T> List<T> invokeAll(List<Callable<T>> tasks, long deadline) {
+        if (tasks.size() <= 1) {
+            List<T> results = new ArrayList<>(tasks.size());
+            for (Callable<T> task : tasks) results.add(callInline(task));
+            return results;
+        }
+        CompletionService<Integer> completion = new ExecutorCompletionService<>(executor);
+        Object[] results = new Object[tasks.size()];
+        List<Future<Integer>> futures = new ArrayList<>(tasks.size());
+        try {
+            for (int i = 0; i < tasks.size(); i++) {
+                int index = i;
+                Callable<T> task = tasks.get(i);
+                futures.add(completion.submit(() -> {
+                    results[index] = task.call();
+                    return index;
+                }));
+            }
+            for (int done = 0; done < tasks.size(); done++) {
+                Future<Integer> next = completion.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (next == null) {
+                    throw new DeadlineExceededException("Request deadline exceeded with "
+                            + (tasks.size() - done) + " of " + tasks.size() + " parallel tasks pending");
+                }
+                next.get();
+            }
+        } catch (ExecutionException e) {
+            throw propagate(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for parallel tasks", e);
+        } finally {
+            // no-op for completed subtasks; interrupts stragglers after a failure or timeout
+            futures.forEach(f -> f.cancel(true));
+        }
+        @SuppressWarnings("unchecked")
+        List<T> list = (List<T>) Arrays.asList(results);
+        return list;
+    }
+
+    private static <T> T callInline(Callable<T> task) {
+        try {
+            return task.call();
+        } catch (Exception e) {
+            throw propagate(e);
+        }
+    }
+
+    private static RuntimeException propagate(Throwable t) {
+        if (t instanceof RuntimeException re) return re;
+        if (t instanceof Error err) throw err;
+        return new IllegalStateException(t);
+    }
+}
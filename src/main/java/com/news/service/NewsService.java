@@ -6,23 +6,37 @@ import com.news.exception.InvalidRequestException;
 import com.news.exception.ResourceNotFoundException;
 import com.news.model.NewsArticle;
 import com.news.repository.NewsArticleRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Timed(value = "news.service", description = "NewsService method latency")
 public class NewsService {
     @Autowired
     private NewsArticleRepository repo;
@@ -33,6 +47,27 @@ public class NewsService {
     @Autowired
     private DistanceService distanceService;
 
+    @Autowired
+    private FanOutExecutor fanOut;
+
+    @Autowired
+    private CorpusVersionService corpusVersion;
+
+    @Autowired
+    private DuplicateDetector duplicates;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Value("${app.export.batchSize:32}")
+    private int exportBatchSize;
+
+    /** Receives exported articles one batch at a time. */
+    @FunctionalInterface
+    public interface ArticleSink {
+        void accept(List<NewsArticle> batch) throws IOException;
+    }
+
 
     public LlmExtraction analyzeQuery(String query, Double lat, Double lon) {
         if (query == null || query.trim().isEmpty()) {
@@ -41,7 +76,8 @@ public class NewsService {
         return llm.extract(query, lat, lon);
     }
 
-    public NewsResponse byCategory(String category, int page, int size) {
+    @Cacheable(value = CorpusVersionService.FEEDS_CACHE, keyGenerator = "corpusVersionKeyGenerator")
+    public NewsResponse byCategory(String category, int page, int size, boolean collapse) {
         if (category == null || category.isBlank()) {
             throw new InvalidRequestException("Category name cannot be empty");
         }
@@ -49,11 +85,11 @@ public class NewsService {
         if (newsArticlePage.isEmpty()) {
             throw new ResourceNotFoundException("No articles found for category: " + category);
         }
-        List<NewsArticle> enriched = enrich(newsArticlePage.getContent());
-        return new NewsResponse(newsArticlePage.getTotalElements(), page, topN(enriched, 5));
+        return new NewsResponse(newsArticlePage.getTotalElements(), page, enrich(topN(newsArticlePage.getContent(), 5, collapse)));
     }
 
-    public NewsResponse bySource(String source, int page, int size) {
+    @Cacheable(value = CorpusVersionService.FEEDS_CACHE, keyGenerator = "corpusVersionKeyGenerator")
+    public NewsResponse bySource(String source, int page, int size, boolean collapse) {
         if (source == null || source.isBlank()) {
             throw new InvalidRequestException("Source name cannot be empty");
         }
@@ -61,11 +97,11 @@ public class NewsService {
         if (newsArticlePage.isEmpty()) {
             throw new ResourceNotFoundException("No articles found for source: " + source);
         }
-        List<NewsArticle> enriched = enrich(newsArticlePage.getContent());
-        return new NewsResponse(newsArticlePage.getTotalElements(), page, topN(enriched, 5));
+        return new NewsResponse(newsArticlePage.getTotalElements(), page, enrich(topN(newsArticlePage.getContent(), 5, collapse)));
     }
 
-    public NewsResponse byScore(double threshold, int page, int size) {
+    @Cacheable(value = CorpusVersionService.FEEDS_CACHE, keyGenerator = "corpusVersionKeyGenerator")
+    public NewsResponse byScore(double threshold, int page, int size, boolean collapse) {
         if (threshold < 0 || threshold > 1) {
             throw new InvalidRequestException("Relevance score threshold must be between 0 and 1");
         }
@@ -73,14 +109,13 @@ public class NewsService {
         if (newsArticlePage.isEmpty()) {
             throw new ResourceNotFoundException("No articles found for score: " + threshold);
         }
-        List<NewsArticle> enriched = enrich(newsArticlePage.getContent());
-        List<NewsArticle> sorted = enriched.stream()
+        List<NewsArticle> sorted = newsArticlePage.getContent().stream()
                 .sorted(Comparator.comparingDouble(NewsArticle::getRelevanceScore).reversed())
                 .collect(Collectors.toList());
-        return new NewsResponse(newsArticlePage.getTotalElements(), page, topN(sorted, 5));
+        return new NewsResponse(newsArticlePage.getTotalElements(), page, enrich(topN(sorted, 5, collapse)));
     }
 
-    public NewsResponse search(String query, int page, int size) {
+    public NewsResponse search(String query, int page, int size, boolean collapse) {
         if (query == null || query.isBlank()) {
             throw new InvalidRequestException("Search query cannot be empty");
         }
@@ -88,14 +123,13 @@ public class NewsService {
         if (p.isEmpty()) {
             throw new ResourceNotFoundException("No articles found matching query: " + query);
         }
-        List<NewsArticle> enriched = enrich(p.getContent());
-        List<NewsArticle> ranked = enriched.stream()
+        List<NewsArticle> ranked = p.getContent().stream()
                 .sorted(Comparator.comparingDouble(NewsArticle::getRelevanceScore).reversed())
                 .collect(Collectors.toList());
-        return new NewsResponse(p.getTotalElements(), page, topN(ranked, 5));
+        return new NewsResponse(p.getTotalElements(), page, enrich(topN(ranked, 5, collapse)));
     }
 
-    public NewsResponse nearby(double lat, double lon, double radiusKm, int page, int size) {
+    public NewsResponse nearby(double lat, double lon, double radiusKm, int page, int size, boolean collapse) {
 // For simplicity, fetch a page then filter by distance (could use Mongo geo-index in prod)
         if (radiusKm <= 0) {
             throw new InvalidRequestException("Radius must be greater than 0");
@@ -103,32 +137,134 @@ public class NewsService {
         Page<NewsArticle> p = repo.findAll(PageRequest.of(page, size));
         List<NewsArticle> filtered = p.getContent().stream()
                 .filter(a -> a.getLatitude() != null && a.getLongitude() != null)
-                .peek(a -> a.setLlmSummary(llm.summarize(a.getTitle(), a.getDescription())))
                 .filter(a -> distanceService.haversineKm(lat, lon, a.getLatitude(), a.getLongitude()) <= radiusKm)
                 .sorted(Comparator.comparingDouble(a -> distanceService.haversineKm(lat, lon, a.getLatitude(), a.getLongitude())))
                 .collect(Collectors.toList());
         if (filtered.isEmpty()) {
             throw new ResourceNotFoundException("No nearby articles found within " + radiusKm + " km");
         }
-        return new NewsResponse(filtered.size(), page, topN(filtered, 5));
+        return new NewsResponse(filtered.size(), page, enrich(topN(filtered, 5, collapse)));
+    }
+
+    /**
+     * Lazily read articles for an export: at most one of category, source or minScore, optionally narrowed to
+     * {@code radiusKm} around (lat, lon). Backed by a database cursor, so the caller must close the stream.
+     */
+    public Stream<NewsArticle> exportStream(String category, String source, Double minScore,
+                                            Double lat, Double lon, Double radiusKm) {
+        long filters = Stream.of(category, source, minScore).filter(f -> f != null).count();
+        if (filters > 1) {
+            throw new InvalidRequestException("Use at most one of category, source or minScore");
+        }
+        if (minScore != null && (minScore < 0 || minScore > 1)) {
+            throw new InvalidRequestException("Relevance score threshold must be between 0 and 1");
+        }
+        if ((lat == null) != (lon == null) || (lat == null) != (radiusKm == null)) {
+            throw new InvalidRequestException("lat, lon and radiusKm must be given together");
+        }
+        if (radiusKm != null && radiusKm <= 0) {
+            throw new InvalidRequestException("Radius must be greater than 0");
+        }
+        Stream<NewsArticle> articles;
+        if (category != null) articles = repo.streamByCategoryIgnoreCase(category);
+        else if (source != null) articles = repo.streamBySourceNameIgnoreCase(source);
+        else if (minScore != null) articles = repo.streamByRelevanceScoreGreaterThanEqual(minScore);
+        else articles = repo.streamAllBy();
+        if (lat != null) {
+            articles = articles.filter(a -> a.getLatitude() != null && a.getLongitude() != null
+                    && distanceService.haversineKm(lat, lon, a.getLatitude(), a.getLongitude()) <= radiusKm);
+        }
+        return articles;
+    }
+
+    /**
+     * Feeds {@code articles} to the sink in batches of {@code app.export.batchSize}, summarizing each batch in
+     * parallel when asked, so memory stays at one batch however many articles match. Closes the stream.
+     */
+    public long export(Stream<NewsArticle> articles, boolean summaries, ArticleSink sink) throws IOException {
+        long count = 0;
+        try (articles) {
+            Iterator<NewsArticle> it = articles.iterator();
+            List<NewsArticle> batch = new ArrayList<>(exportBatchSize);
+            while (it.hasNext()) {
+                batch.add(it.next());
+                if (batch.size() == exportBatchSize || !it.hasNext()) {
+                    sink.accept(summaries ? enrich(batch, fanOut::invokeBatch) : batch);
+                    count += batch.size();
+                    batch.clear();
+                }
+            }
+        }
+        return count;
     }
 
-    public void loadArticles(List<NewsArticle> articles) {
+    /** Stores the articles, clustering near-duplicates of each other and of the corpus; returns the number of duplicates. */
+    public int loadArticles(List<NewsArticle> articles) {
         if (articles == null || articles.isEmpty()) {
             throw new InvalidRequestException("No articles provided to load");
         }
+        int duplicateCount = 0;
         for (NewsArticle a : articles) {
             if (a.getPublicationDate() == null) a.setPublicationDate(LocalDateTime.now());
-            repo.save(a);
+            if (duplicates.assignCluster(a)) {
+                duplicateCount++;
+                repo.save(a);
+            } else if (a.getId() != null) {
+                a.setClusterId(a.getId());
+                repo.save(a);
+            } else {
+                // the id is only known once stored
+                NewsArticle saved = repo.save(a);
+                saved.setClusterId(saved.getId());
+                repo.save(saved);
+            }
         }
+        corpusVersion.increment();
+        return duplicateCount;
     }
 
 
+    // Only the articles actually returned are summarized; the LLM calls run in parallel.
     private List<NewsArticle> enrich(List<NewsArticle> list) {
-        return list.stream().peek(a -> a.setLlmSummary(llm.summarize(a.getTitle(), a.getDescription()))).toList();
+        return enrich(list, fanOut::invokeAll);
+    }
+
+    // One summary per story: near-duplicates share their cluster's summary, which is reused across requests.
+    private List<NewsArticle> enrich(List<NewsArticle> list, Function<List<Callable<String>>, List<String>> invoker) {
+        Cache cache = cacheManager.getCache(CorpusVersionService.SUMMARIES_CACHE);
+        Map<String, NewsArticle> stories = new LinkedHashMap<>();
+        for (NewsArticle a : list) stories.putIfAbsent(clusterKey(a), a);
+        List<String> summaries = invoker.apply(stories.entrySet().stream()
+                .<Callable<String>>map(e -> () -> cachedSummary(cache, e.getKey(), e.getValue()))
+                .toList());
+        Map<String, String> byStory = new LinkedHashMap<>();
+        int i = 0;
+        for (String key : stories.keySet()) byStory.put(key, summaries.get(i++));
+        for (NewsArticle a : list) a.setLlmSummary(byStory.get(clusterKey(a)));
+        return list;
+    }
+
+    // The LLM call runs outside the cache so it holds no map lock; two racing misses both call it, first put wins
+    private String cachedSummary(Cache cache, String key, NewsArticle story) {
+        Cache.ValueWrapper cached = cache.get(key);
+        if (cached != null) return (String) cached.get();
+        String summary = llm.summarize(story.getTitle(), story.getDescription());
+        Cache.ValueWrapper raced = cache.putIfAbsent(key, summary);
+        return raced != null ? (String) raced.get() : summary;
+    }
+
+    private List<NewsArticle> topN(List<NewsArticle> list, int n, boolean collapse) {
+        if (!collapse) return list.stream().limit(n).toList();
+        Map<String, NewsArticle> firstPerStory = new LinkedHashMap<>();
+        for (NewsArticle a : list) {
+            if (firstPerStory.size() == n) break;
+            firstPerStory.putIfAbsent(clusterKey(a), a);
+        }
+        return List.copyOf(firstPerStory.values());
     }
 
-    private List<NewsArticle> topN(List<NewsArticle> list, int n) {
-        return list.stream().limit(n).toList();
+    // articles loaded before clustering existed have no cluster and stand alone
+    private static String clusterKey(NewsArticle a) {
+        return a.getClusterId() != null ? a.getClusterId() : a.getId();
     }
 }
\ No newline at end of file
@@ -2,6 +2,9 @@ package com.news.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.news.dto.LlmExtraction;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpHeaders;
@@ -9,23 +12,25 @@ import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.reactive.function.client.WebClient;
-import reactor.core.publisher.Mono;
 
-import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
+@Slf4j
 @Component
 @Profile("openai")
 public class OpenAiLlmClient implements LlmClient {
 
     private final WebClient webClient;
     private final String model;
+    private final MeterRegistry meterRegistry;
     private final ObjectMapper mapper = new ObjectMapper();
 
     public OpenAiLlmClient(@Value("${app.llm.openai.apiKey:}") String apiKey,
-                           @Value("${app.llm.openai.model:gpt-4o-mini}") String model) {
+                           @Value("${app.llm.openai.model:gpt-4o-mini}") String model,
+                           MeterRegistry meterRegistry) {
         this.model = model;
+        this.meterRegistry = meterRegistry;
         this.webClient = WebClient.builder()
                 .baseUrl("https://api.openai.com/v1/chat/completions")
                 .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + apiKey)
@@ -56,20 +61,17 @@ public class OpenAiLlmClient implements LlmClient {
         );
 
         try {
-            Map<?, ?> response = webClient.post()
-                    .body(BodyInserters.fromValue(payload))
-                    .retrieve()
-                    .bodyToMono(Map.class)
-                    .onErrorResume(e -> Mono.just(Collections.emptyMap()))
-                    .block();
+            Map<?, ?> response = post("extract", payload);
 
             if (response == null || response.isEmpty()) {
+                countFallback("extract", "empty_response");
                 return new SimpleLlmClient().extract(userQuery, lat, lon);
             }
 
             // Extract content string from OpenAI JSON
             List<Map<String, Object>> choices = (List<Map<String, Object>>) response.get("choices");
             if (choices == null || choices.isEmpty()) {
+                countFallback("extract", "no_choices");
                 return new SimpleLlmClient().extract(userQuery, lat, lon);
             }
 
@@ -80,7 +82,8 @@ public class OpenAiLlmClient implements LlmClient {
             return mapper.readValue(content, LlmExtraction.class);
 
         } catch (Exception e) {
-            e.printStackTrace();
+            log.warn("LLM extract failed, falling back to rule-based extraction: {}", e.toString());
+            countFallback("extract", "error");
             return new SimpleLlmClient().extract(userQuery, lat, lon);
         }
     }
@@ -99,18 +102,16 @@ public class OpenAiLlmClient implements LlmClient {
         );
 
         try {
-            Map<?, ?> response = webClient.post()
-                    .body(BodyInserters.fromValue(payload))
-                    .retrieve()
-                    .bodyToMono(Map.class)
-                    .block();
+            Map<?, ?> response = post("summarize", payload);
 
             if (response == null || response.isEmpty()) {
+                countFallback("summarize", "empty_response");
                 return new SimpleLlmClient().summarize(title, description);
             }
 
             List<Map<String, Object>> choices = (List<Map<String, Object>>) response.get("choices");
             if (choices == null || choices.isEmpty()) {
+                countFallback("summarize", "no_choices");
                 return new SimpleLlmClient().summarize(title, description);
             }
 
@@ -119,8 +120,43 @@ public class OpenAiLlmClient implements LlmClient {
             return (String) message.get("content");
 
         } catch (Exception e) {
-            e.printStackTrace();
+            log.warn("LLM summarize failed, falling back to truncated description: {}", e.toString());
+            countFallback("summarize", "error");
             return new SimpleLlmClient().summarize(title, description);
         }
     }
+
+    // HTTP and transport errors propagate so callers count them as reason="error", not as an empty response
+    private Map<?, ?> post(String operation, Map<String, Object> payload) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            Map<?, ?> response = webClient.post()
+                    .body(BodyInserters.fromValue(payload))
+                    .retrieve()
+                    .bodyToMono(Map.class)
+                    .block();
+            if (response != null && !response.isEmpty()) {
+                outcome = "success";
+                countTokens(operation, response);
+            }
+            return response;
+        } finally {
+            sample.stop(meterRegistry.timer("news.llm.calls", "operation", operation, "outcome", outcome));
+        }
+    }
+
+    private void countTokens(String operation, Map<?, ?> response) {
+        if (!(response.get("usage") instanceof Map<?, ?> usage)) return;
+        if (usage.get("prompt_tokens") instanceof Number n) {
+            meterRegistry.counter("news.llm.tokens", "operation", operation, "type", "prompt").increment(n.doubleValue());
+        }
+        if (usage.get("completion_tokens") instanceof Number n) {
+            meterRegistry.counter("news.llm.tokens", "operation", operation, "type", "completion").increment(n.doubleValue());
+        }
+    }
+
+    private void countFallback(String operation, String reason) {
+        meterRegistry.counter("news.llm.fallbacks", "operation", operation, "reason", reason).increment();
+    }
 }
@@ -0,0 +1,70 @@
+package com.news.service;
+
+import com.news.dto.LlmExtraction;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Deterministic stand-in for {@link OpenAiLlmClient} used by the {@code perf} profile. Every call
+ * sleeps for {@code latencyMs} plus a jitter derived from the input, and exactly {@code errorRate}
+ * of calls fail, so load test runs are repeatable without network access.
+ */
+@Component
+@Profile("perf")
+public class StubLlmClient implements LlmClient {
+
+    private final SimpleLlmClient delegate = new SimpleLlmClient();
+    private final AtomicLong calls = new AtomicLong();
+    private final long latencyMs;
+    private final long jitterMs;
+    private final double errorRate;
+    private final MeterRegistry meterRegistry;
+
+    public StubLlmClient(@Value("${app.perf.llm.latencyMs:200}") long latencyMs,
+                         @Value("${app.perf.llm.jitterMs:50}") long jitterMs,
+                         @Value("${app.perf.llm.errorRate:0.0}") double errorRate,
+                         MeterRegistry meterRegistry) {
+        if (errorRate < 0 || errorRate > 1) {
+            throw new IllegalArgumentException("app.perf.llm.errorRate must be between 0 and 1");
+        }
+        this.latencyMs = latencyMs;
+        this.jitterMs = jitterMs;
+        this.errorRate = errorRate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public LlmExtraction extract(String userQuery, Double lat, Double lon) {
+        simulateCall("extract", userQuery);
+        return delegate.extract(userQuery, lat, lon);
+    }
+
+    @Override
+    public String summarize(String title, String description) {
+        simulateCall("summarize", title);
+        return delegate.summarize(title, description);
+    }
+
+    private void simulateCall(String operation, String input) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        long n = calls.incrementAndGet();
+        long jitter = jitterMs > 0 && input != null ? Math.floorMod(input.hashCode(), jitterMs + 1) : 0;
+        try {
+            Thread.sleep(latencyMs + jitter);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Stub LLM call interrupted", e);
+        }
+        // fail on exactly floor(n * errorRate) of the first n calls
+        boolean fail = (long) (n * errorRate) > (long) ((n - 1) * errorRate);
+        sample.stop(meterRegistry.timer("news.llm.calls", "operation", operation, "outcome", fail ? "error" : "success"));
+        if (fail) {
+            throw new IllegalStateException("Stub LLM failure (call " + n + ")");
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.news.service;
+
+import com.news.model.TrendingState;
+import com.news.repository.TrendingEventLog;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+
+/** Fetches the local trending summary of another API node (see {@code GET /api/v1/admin/trending/summary}). */
+@Component
+public class TrendingPeerClient {
+
+    private final WebClient webClient;
+    private final Duration timeout;
+
+    public TrendingPeerClient(@Value("${app.trending.peerTimeoutMs:2000}") long timeoutMs,
+                              @Value("${app.trending.maxCells:2048}") int maxCells,
+                              @Value("${app.trending.topK:32}") int topK,
+                              @Value("${app.trending.hllPrecision:10}") int hllPrecision) {
+        this.timeout = Duration.ofMillis(timeoutMs);
+        // a full summary of a peer configured like this node always fits
+        long maxBytes = 4 + TrendingState.maxSerializedBytes(maxCells, topK, hllPrecision, TrendingEventLog.MAX_ID_BYTES);
+        this.webClient = WebClient.builder()
+                .codecs(c -> c.defaultCodecs().maxInMemorySize((int) Math.min(maxBytes, Integer.MAX_VALUE - 8)))
+                .build();
+    }
+
+    public byte[] fetchSummary(String peerBaseUrl) {
+        return webClient.get()
+                .uri(peerBaseUrl + "/api/v1/admin/trending/summary")
+                .retrieve()
+                .bodyToMono(byte[].class)
+                .timeout(timeout)
+                .block();
+    }
+}
@@ -1,61 +1,252 @@
 package com.news.service;
 
 import com.news.dto.TrendingEvent;
+import com.news.exception.InvalidRequestException;
+import com.news.model.HyperLogLog;
 import com.news.model.NewsArticle;
+import com.news.model.TrendingState;
 import com.news.repository.NewsArticleRepository;
+import com.news.repository.TrendingEventLog;
+import com.news.repository.TrendingSnapshotStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 
-import java.time.Duration;
-import java.time.Instant;
+import java.io.*;
 import java.util.*;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.stream.Collectors;
 
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class TrendingService {
 
+    // Short-lived and size-bounded (CacheConfig): results move with every event and peer sync
+    public static final String TRENDING_CACHE = "trending";
+
     @Autowired
     private final NewsArticleRepository repo;
     @Autowired
     private final DistanceService distanceService;
+    @Autowired
+    private final MeterRegistry meterRegistry;
+    @Autowired
+    private final TrendingEventLog eventLog;
+    @Autowired
+    private final TrendingSnapshotStore snapshotStore;
+    @Autowired
+    private final TrendingPeerClient peerClient;
 
-    // In-memory event store for demo;
-    private final List<TrendingEvent> events = new CopyOnWriteArrayList<>();
+    @Value("${app.trending.cellDegrees:0.1}")
+    private double cellDegrees;
+    @Value("${app.trending.topK:32}")
+    private int topK;
+    @Value("${app.trending.maxCells:2048}")
+    private int maxCells;
+    @Value("${app.trending.hllPrecision:10}")
+    private int hllPrecision;
+    @Value("${app.trending.maxClockSkewMs:300000}")
+    private long maxClockSkewMs;
+    @Value("${app.trending.pruneBelow:1e-6}")
+    private double pruneBelow;
+    @Value("${app.trending.peers:}")
+    private List<String> peers;
+    @Value("${app.trending.peerMaxStaleMs:300000}")
+    private long peerMaxStaleMs;
+    @Value("${app.trending.summaryMaxAgeMs:5000}")
+    private long summaryMaxAgeMs;
+
+    // Events are durable in the log; this is the aggregate they fold into, restored from snapshot + log tail.
+    private TrendingState state;
+    // ingest/query share the read lock; snapshots take the write lock to cut a consistent log position
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Latest local summary of every peer node, and all of them merged into one view for queries
+    private record PeerSummary(TrendingState state, long fetchedAt) { }
+    private final Map<String, PeerSummary> peerSummaries = new ConcurrentHashMap<>();
+    private volatile TrendingState peerView;
+
+    // This node's serialized summary, shared by all peers fetching it within summaryMaxAgeMs
+    private record Summary(byte[] bytes, long builtAt) { }
+    private volatile Summary summary;
+
+    @PostConstruct
+    void restore() throws IOException {
+        long start = System.nanoTime();
+        state = newState();
+        peerView = newState();
+        Optional<TrendingEventLog.Position> snapshot = snapshotStore.load(state);
+        // without a usable snapshot, drop anything a partial read left and rebuild from the remaining log
+        if (snapshot.isEmpty()) state = newState();
+        TrendingEventLog.Position from = snapshot.orElse(TrendingEventLog.Position.START);
+        long replayed = eventLog.replay(from, this::apply);
+        log.info("Restored trending state ({} entries) from snapshot at {} and {} replayed events in {} ms",
+                state.size(), from, replayed, (System.nanoTime() - start) / 1_000_000);
+        meterRegistry.gauge("news.trending.state.entries", state, TrendingState::size);
+    }
 
     public void ingest(TrendingEvent e) {
-        events.add(e);
+        if (e.getArticleId() == null || e.getArticleId().isBlank()) {
+            throw new InvalidRequestException("articleId is required");
+        }
+        // a far-future event would outweigh everything else for as long as it is ahead of the clock
+        if (e.getTimestamp().toEpochMilli() > System.currentTimeMillis() + maxClockSkewMs) {
+            throw new InvalidRequestException("timestamp must not be more than " + maxClockSkewMs + " ms in the future");
+        }
+        lock.readLock().lock();
+        try {
+            eventLog.append(e);
+            apply(e);
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidRequestException(ex.getMessage());
+        } finally {
+            lock.readLock().unlock();
+        }
+        meterRegistry.counter("news.trending.events", "type", eventType(e)).increment();
+    }
+
+    @Scheduled(fixedDelayString = "${app.trending.snapshotIntervalMs:60000}",
+            initialDelayString = "${app.trending.snapshotIntervalMs:60000}")
+    @PreDestroy
+    public void snapshot() throws IOException {
+        TrendingState copy;
+        TrendingEventLog.Position position;
+        lock.writeLock().lock();
+        try {
+            state.rebase(System.currentTimeMillis(), pruneBelow);
+            copy = state.copy();
+            position = eventLog.position();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        eventLog.flush();
+        snapshotStore.save(copy, position);
+        eventLog.deleteBefore(position);
+    }
+
+    /**
+     * Serialized local-only state for peers; peer data is never re-exported, so nothing is counted twice. Built
+     * at most once per {@code app.trending.summaryMaxAgeMs} however many peers ask.
+     */
+    public synchronized byte[] exportSummary() throws IOException {
+        long now = System.currentTimeMillis();
+        Summary cached = summary;
+        if (cached != null && now - cached.builtAt() < summaryMaxAgeMs) return cached.bytes();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(cached == null ? 64 * 1024 : cached.bytes().length);
+        // summaries lock per cell, so writing needs no copy and only holds off snapshots meanwhile
+        lock.readLock().lock();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(TrendingState.FORMAT_VERSION);
+            state.writeTo(out);
+        } finally {
+            lock.readLock().unlock();
+        }
+        summary = new Summary(bytes.toByteArray(), now);
+        return summary.bytes();
     }
 
+    @Scheduled(fixedDelayString = "${app.trending.peerSyncIntervalMs:10000}")
+    public void syncPeers() {
+        if (peers.isEmpty()) return;
+        long now = System.currentTimeMillis();
+        for (String peer : peers) {
+            try {
+                TrendingState summary = newState();
+                try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(peerClient.fetchSummary(peer)))) {
+                    summary.readFrom(in, in.readInt());
+                }
+                peerSummaries.put(peer, new PeerSummary(summary, now));
+            } catch (Exception ex) {
+                log.warn("Could not fetch trending summary from peer {}: {}", peer, ex.toString());
+                meterRegistry.counter("news.trending.peer.failures", "peer", peer).increment();
+            }
+        }
+        peerSummaries.values().removeIf(p -> now - p.fetchedAt() > peerMaxStaleMs);
+        TrendingState merged = newState();
+        peerSummaries.values().forEach(p -> merged.merge(p.state()));
+        merged.rebase(now, pruneBelow);
+        peerView = merged;
+    }
 
-    @Cacheable(value = "trending", key = "#lat + ':' + #lon + ':' + #limit")
+    @Cacheable(value = TRENDING_CACHE, key = "#lat + ':' + #lon + ':' + #limit")
     public List<NewsArticle> topTrending(double lat, double lon, int limit) {
-        Instant now = Instant.now();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            return computeTopTrending(lat, lon, limit);
+        } finally {
+            sample.stop(meterRegistry.timer("news.trending.compute"));
+        }
+    }
+
+    private List<NewsArticle> computeTopTrending(double lat, double lon, int limit) {
         Map<String, Double> scores = new HashMap<>();
-        for (TrendingEvent e : events) {
-            double base = switch (e.getType()) {
-                case "click" -> 2.0;
-                case "view" -> 1.0;
-                default -> 0.5;
-            };
-            double hoursAgo = Duration.between(e.getTimestamp(), now).toHours();
-            double timeDecay = Math.exp(-hoursAgo / 24.0); // 1 day half-life approx
-            double distance = distanceService.haversineKm(lat, lon, e.getLatitude(), e.getLongitude());
-            double proximity = Math.exp(-distance / 50.0); // 50km decay
-            double score = base * timeDecay * proximity;
-            scores.merge(e.getArticleId(), score, Double::sum);
+        TrendingState peers = peerView;
+        lock.readLock().lock();
+        try {
+            accumulate(state, lat, lon, scores);
+        } finally {
+            lock.readLock().unlock();
         }
+        accumulate(peers, lat, lon, scores);
         List<String> topIds = scores.entrySet().stream()
                 .sorted(Map.Entry.<String, Double>comparingByValue().reversed())
                 .limit(limit)
                 .map(Map.Entry::getKey)
                 .toList();
         Map<String, NewsArticle> byId = repo.findAllById(topIds).stream().collect(Collectors.toMap(NewsArticle::getId, a -> a));
-        return topIds.stream().map(byId::get).filter(Objects::nonNull).toList();
+        return topIds.stream().map(byId::get).filter(Objects::nonNull)
+                .peek(a -> a.setUniqueUsers(uniqueUsers(a.getId(), peers)))
+                .toList();
+    }
+
+    private void accumulate(TrendingState s, double lat, double lon, Map<String, Double> scores) {
+        double timeDecay = s.decayTo(System.currentTimeMillis()); // 1 day half-life approx
+        for (TrendingState.Cell cell : s.cells()) {
+            double distance = distanceService.haversineKm(lat, lon, cell.latitude(), cell.longitude());
+            double proximity = Math.exp(-distance / 50.0); // 50km decay
+            cell.articles().counts().forEach((articleId, weight) ->
+                    scores.merge(articleId, weight * timeDecay * proximity, Double::sum));
+        }
+    }
+
+    private long uniqueUsers(String articleId, TrendingState peers) {
+        HyperLogLog merged = new HyperLogLog(hllPrecision);
+        state.uniqueUsers(articleId).ifPresent(merged::merge);
+        peers.uniqueUsers(articleId).ifPresent(merged::merge);
+        return merged.estimate();
+    }
+
+    private TrendingState newState() {
+        return new TrendingState(cellDegrees, topK, maxCells, hllPrecision, System.currentTimeMillis());
+    }
+
+    private void apply(TrendingEvent e) {
+        double base = switch (eventType(e)) {
+            case "click" -> 2.0;
+            case "view" -> 1.0;
+            default -> 0.5;
+        };
+        // also covers events logged before future timestamps were rejected
+        long timestamp = Math.min(e.getTimestamp().toEpochMilli(), System.currentTimeMillis() + maxClockSkewMs);
+        state.add(timestamp, e.getLatitude(), e.getLongitude(), e.getArticleId(), e.getUserId(), base);
+    }
+
+    // keep the tag set bounded no matter what clients send
+    private static String eventType(TrendingEvent e) {
+        String type = e.getType();
+        return "click".equals(type) || "view".equals(type) ? type : "other";
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,116 @@
+package com.news.config;
+
+import com.github.luben.zstd.ZstdInputStream;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ZstdCompressionFilterTest {
+
+    @Test
+    void acceptsZstdUnlessExcluded() {
+        assertTrue(ZstdCompressionFilter.acceptsZstd("gzip, zstd"));
+        assertTrue(ZstdCompressionFilter.acceptsZstd("ZSTD;q=0.5"));
+        assertFalse(ZstdCompressionFilter.acceptsZstd("gzip, zstd;q=0"));
+        assertFalse(ZstdCompressionFilter.acceptsZstd("gzip, br"));
+        assertFalse(ZstdCompressionFilter.acceptsZstd(null));
+    }
+
+    @Test
+    void malformedQualityIsNotAcceptable() {
+        assertFalse(ZstdCompressionFilter.acceptsZstd("zstd;q=abc"));
+        assertFalse(ZstdCompressionFilter.acceptsZstd("zstd;q="));
+    }
+
+    @Test
+    void compressesJsonBodies() throws Exception {
+        MockHttpServletResponse response = filter(json("{\"ok\":true}"));
+
+        assertEquals("zstd", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("{\"ok\":true}", decompress(response.getContentAsByteArray()));
+    }
+
+    @Test
+    void failedChainLeavesTheFrameUnfinished() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain failing = (req, res) -> {
+            res.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            res.getOutputStream().write("[{\"id\":1}".getBytes(StandardCharsets.UTF_8));
+            res.flushBuffer();
+            throw new IllegalStateException("source failed");
+        };
+
+        assertThrows(IllegalStateException.class, () -> newFilter().doFilter(zstdRequest(), response, failing));
+
+        byte[] body = response.getContentAsByteArray();
+        assertTrue(body.length > 0);
+        assertThrows(IOException.class, () -> decompress(body));
+    }
+
+    @Test
+    void resetDecidesCompressionAgain() throws Exception {
+        MockHttpServletResponse response = filter((req, res) -> {
+            res.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            res.getOutputStream().write("[{\"id\":1}".getBytes(StandardCharsets.UTF_8));
+            res.reset();
+            res.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            res.getWriter().write("failed");
+        });
+
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("failed", response.getContentAsString());
+    }
+
+    @Test
+    void resetBufferStartsANewFrame() throws Exception {
+        MockHttpServletResponse response = filter((req, res) -> {
+            res.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            res.getOutputStream().write("[{\"id\":1}".getBytes(StandardCharsets.UTF_8));
+            res.resetBuffer();
+            res.getWriter().write("{\"error\":true}");
+        });
+
+        assertEquals("zstd", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("{\"error\":true}", decompress(response.getContentAsByteArray()));
+    }
+
+    private static FilterChain json(String body) {
+        return (req, res) -> {
+            res.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            res.getWriter().write(body);
+        };
+    }
+
+    private static MockHttpServletResponse filter(FilterChain chain) throws ServletException, IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        newFilter().doFilter(zstdRequest(), response, chain);
+        return response;
+    }
+
+    private static ZstdCompressionFilter newFilter() {
+        return new ZstdCompressionFilter(true, 3, List.of(MediaType.APPLICATION_JSON));
+    }
+
+    private static MockHttpServletRequest zstdRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/news/export");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "zstd");
+        return request;
+    }
+
+    private static String decompress(byte[] body) throws IOException {
+        try (ZstdInputStream in = new ZstdInputStream(new ByteArrayInputStream(body))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.news.controller;
+
+import com.news.service.CorpusVersionService;
+import com.news.service.NewsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.lang.reflect.Method;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "app.trending.log.dir=target/test-trending/feeds",
+        "app.perf.llm.latencyMs=0",
+        "app.perf.llm.jitterMs=0"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("perf")
+class FeedCachingTest {
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private NewsService newsService;
+    @Autowired
+    private CorpusVersionService corpusVersion;
+    @Autowired
+    private CacheManager cacheManager;
+    @Autowired
+    @Qualifier("corpusVersionKeyGenerator")
+    private KeyGenerator keyGenerator;
+
+    @Test
+    void etagRevalidatesUntilTheCorpusChanges() throws Exception {
+        String etag = mvc.perform(get("/api/v1/news/category").param("name", "world"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, public"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+
+        mvc.perform(get("/api/v1/news/category").param("name", "world").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        corpusVersion.increment();
+
+        mvc.perform(get("/api/v1/news/category").param("name", "world").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, corpusVersion.current().etag()));
+    }
+
+    @Test
+    void keysIncludeMethodAndCorpusVersion() throws Exception {
+        Method byCategory = NewsService.class.getMethod("byCategory", String.class, int.class, int.class, boolean.class);
+        Method bySource = NewsService.class.getMethod("bySource", String.class, int.class, int.class, boolean.class);
+
+        Object key = keyGenerator.generate(newsService, byCategory, "world", 0, 10, false);
+        assertEquals(key, keyGenerator.generate(newsService, byCategory, "world", 0, 10, false));
+        assertNotEquals(key, keyGenerator.generate(newsService, bySource, "world", 0, 10, false));
+        assertNotEquals(key, keyGenerator.generate(newsService, byCategory, "world", 1, 10, false));
+
+        corpusVersion.increment();
+
+        assertNotEquals(key, keyGenerator.generate(newsService, byCategory, "world", 0, 10, false));
+    }
+
+    @Test
+    void versionChangeClearsTheFeedsCache() throws Exception {
+        Method byCategory = NewsService.class.getMethod("byCategory", String.class, int.class, int.class, boolean.class);
+        Cache feeds = cacheManager.getCache(CorpusVersionService.FEEDS_CACHE);
+        assertNotNull(feeds);
+
+        newsService.byCategory("world", 0, 10, false);
+        Object key = keyGenerator.generate(newsService, byCategory, "world", 0, 10, false);
+        assertNotNull(feeds.get(key));
+
+        corpusVersion.increment();
+
+        assertNull(feeds.get(key));
+    }
+}
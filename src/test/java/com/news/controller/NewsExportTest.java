@@ -0,0 +1,116 @@
+package com.news.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.luben.zstd.ZstdInputStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs against a real server so an aborted export shows up as a broken connection. The stub LLM fails
+ * every 100th call, which lands a few batches into an export with summaries.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "app.trending.log.dir=target/test-trending/export",
+        "app.perf.llm.latencyMs=0",
+        "app.perf.llm.jitterMs=0",
+        "app.perf.llm.errorRate=0.01"
+})
+@ActiveProfiles("perf")
+class NewsExportTest {
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void exportsNdjsonByDefault() throws Exception {
+        HttpResponse<byte[]> response = send("", null, null);
+
+        assertEquals(200, response.statusCode());
+        assertEquals(MediaType.APPLICATION_NDJSON_VALUE, mediaType(response));
+        String[] lines = new String(response.body(), StandardCharsets.UTF_8).split("\n");
+        assertTrue(lines.length > 1000, "exported " + lines.length);
+        for (String line : lines) assertTrue(objectMapper.readTree(line).hasNonNull("title"));
+    }
+
+    @Test
+    void exportsAJsonArrayWhenPreferred() throws Exception {
+        int ndjson = new String(send("", null, null).body(), StandardCharsets.UTF_8).split("\n").length;
+
+        HttpResponse<byte[]> byAccept = send("", MediaType.APPLICATION_JSON_VALUE, null);
+        HttpResponse<byte[]> byFormat = send("?format=json", "*/*", null);
+
+        assertEquals(MediaType.APPLICATION_JSON_VALUE, mediaType(byAccept));
+        JsonNode array = objectMapper.readTree(byAccept.body());
+        assertTrue(array.isArray());
+        assertEquals(ndjson, array.size());
+        assertArrayEquals(byAccept.body(), byFormat.body());
+    }
+
+    @Test
+    void zstdExportMatchesIdentity() throws Exception {
+        HttpResponse<byte[]> identity = send("?category=world", null, null);
+        HttpResponse<byte[]> zstd = send("?category=world", null, "zstd");
+
+        assertEquals(200, zstd.statusCode());
+        assertEquals("zstd", zstd.headers().firstValue(HttpHeaders.CONTENT_ENCODING).orElse(null));
+        assertArrayEquals(identity.body(), decompress(zstd.body()));
+    }
+
+    @Test
+    void unknownFormatIsRejected() throws Exception {
+        HttpResponse<byte[]> response = send("?format=xml", null, null);
+
+        assertEquals(400, response.statusCode());
+        assertTrue(objectMapper.readTree(response.body()).get("message").asText().contains("xml"));
+    }
+
+    @Test
+    void failureAfterTheFirstBatchAbortsTheConnection() {
+        assertThrows(IOException.class, () -> send("?summaries=true", null, null));
+    }
+
+    @Test
+    void failureAfterTheFirstBatchAbortsTheZstdConnection() {
+        assertThrows(IOException.class, () -> send("?summaries=true", null, "zstd"));
+    }
+
+    private HttpResponse<byte[]> send(String query, String accept, String acceptEncoding)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(
+                URI.create("http://localhost:" + port + "/api/v1/news/export" + query));
+        if (accept != null) request.header(HttpHeaders.ACCEPT, accept);
+        if (acceptEncoding != null) request.header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private static String mediaType(HttpResponse<?> response) {
+        String contentType = response.headers().firstValue(HttpHeaders.CONTENT_TYPE).orElseThrow();
+        return MediaType.parseMediaType(contentType).getType() + "/" + MediaType.parseMediaType(contentType).getSubtype();
+    }
+
+    private static byte[] decompress(byte[] body) throws IOException {
+        try (ZstdInputStream in = new ZstdInputStream(new ByteArrayInputStream(body))) {
+            return in.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.news.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HyperLogLogTest {
+
+    // one standard error, 1.04 / sqrt(2^10), about 3.3%
+    private static final double ERROR = 1.04 / Math.sqrt(1 << 10);
+
+    @Test
+    void estimatesWithinExpectedError() {
+        for (int n : new int[]{100, 1_000, 10_000, 100_000, 1_000_000}) {
+            HyperLogLog hll = users(0, n);
+            assertEquals(n, hll.estimate(), n * ERROR, "cardinality " + n);
+        }
+    }
+
+    @Test
+    void duplicatesDoNotCount() {
+        HyperLogLog hll = users(0, 5_000);
+        long estimate = hll.estimate();
+        for (int i = 0; i < 5_000; i++) hll.add("user-" + i);
+        assertEquals(estimate, hll.estimate());
+    }
+
+    @Test
+    void mergeEqualsUnion() throws IOException {
+        HyperLogLog a = users(0, 60_000);
+        HyperLogLog b = users(40_000, 100_000);
+        a.merge(b);
+        assertArrayEquals(registers(users(0, 100_000)), registers(a));
+        assertEquals(100_000, a.estimate(), 100_000 * ERROR);
+    }
+
+    @Test
+    void rejectsMergeOfDifferentPrecision() {
+        assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(10).merge(new HyperLogLog(12)));
+    }
+
+    @Test
+    void roundTripsThroughStream() throws IOException {
+        HyperLogLog hll = users(0, 10_000);
+        HyperLogLog read = HyperLogLog.readFrom(new DataInputStream(new ByteArrayInputStream(registers(hll))));
+        assertEquals(hll.estimate(), read.estimate());
+    }
+
+    @Test
+    void smallSketchesAreWrittenSparsely() throws IOException {
+        HyperLogLog hll = users(0, 20);
+        byte[] bytes = registers(hll);
+        assertTrue(bytes.length < 1 + 2 + 20 * 3 + 1, "sparse encoding expected, got " + bytes.length + " bytes");
+        HyperLogLog read = HyperLogLog.readFrom(new DataInputStream(new ByteArrayInputStream(bytes)));
+        assertArrayEquals(bytes, registers(read));
+        assertEquals(hll.estimate(), read.estimate());
+        assertEquals(10, read.precision());
+    }
+
+    @Test
+    void largeSketchesStayDense() throws IOException {
+        assertEquals(HyperLogLog.maxSerializedBytes(10), registers(users(0, 10_000)).length);
+        assertTrue(registers(users(0, 300)).length <= HyperLogLog.maxSerializedBytes(10));
+    }
+
+    @Test
+    void readsDenseEncodingOfEarlierSnapshots() throws IOException {
+        byte[] dense = new byte[1 + 1024];
+        dense[0] = 10;
+        dense[1 + 7] = 3;
+        HyperLogLog read = HyperLogLog.readFrom(new DataInputStream(new ByteArrayInputStream(dense)));
+        assertEquals(1, read.estimate());
+    }
+
+    private static HyperLogLog users(int from, int to) {
+        HyperLogLog hll = new HyperLogLog(10);
+        for (int i = from; i < to; i++) hll.add("user-" + i);
+        return hll;
+    }
+
+    private static byte[] registers(HyperLogLog hll) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            hll.writeTo(out);
+        }
+        return bytes.toByteArray();
+    }
+}
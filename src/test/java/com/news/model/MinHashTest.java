@@ -0,0 +1,71 @@
+package com.news.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MinHashTest {
+
+    private static final String STORY = "Central bank raises interest rates by a quarter point to curb persistent inflation";
+
+    @Test
+    void signatureIgnoresCaseOrderAndPunctuation() {
+        int[] a = MinHash.signature(STORY, 80);
+        int[] b = MinHash.signature("curb persistent INFLATION: central bank raises interest rates, by a quarter point, to", 80);
+
+        assertEquals(80, a.length);
+        assertArrayEquals(a, b);
+        assertEquals(1.0, MinHash.similarity(a, b));
+    }
+
+    @Test
+    void similarityEstimatesJaccard() {
+        int[] story = MinHash.signature(STORY, 256);
+        // 12 shared words of 13 distinct: Jaccard 12/13
+        int[] edited = MinHash.signature(STORY + " today", 256);
+        int[] unrelated = MinHash.signature("Local team wins the championship after dramatic overtime goal", 256);
+
+        assertEquals(12.0 / 13, MinHash.similarity(story, edited), 0.1);
+        assertTrue(MinHash.similarity(story, unrelated) < 0.1);
+        assertEquals(0, MinHash.similarity(story, MinHash.signature(STORY, 80)));
+    }
+
+    @Test
+    void textsWithoutWordsHaveNoSignature() {
+        assertNull(MinHash.signature("", 80));
+        assertNull(MinHash.signature("a b c - ! ?", 80));
+    }
+
+    @Test
+    void bandKeysCarryTheBandNumber() {
+        int[] signature = MinHash.signature(STORY, 80);
+        List<Long> keys = MinHash.bands(signature, 20);
+
+        assertEquals(20, keys.size());
+        for (int band = 0; band < keys.size(); band++) {
+            assertEquals(band, keys.get(band) >>> 56);
+        }
+        assertEquals(keys, MinHash.bands(signature.clone(), 20));
+    }
+
+    @Test
+    void bandKeysOnlyMatchOnEqualRows() {
+        int[] signature = MinHash.signature(STORY, 80);
+        int[] changed = signature.clone();
+        changed[5] ^= 1;
+
+        List<Long> keys = MinHash.bands(signature, 20);
+        List<Long> changedKeys = MinHash.bands(changed, 20);
+
+        // rows 4..7 form band 1
+        assertNotEquals(keys.get(1), changedKeys.get(1));
+        for (int band = 0; band < 20; band++) {
+            if (band != 1) assertEquals(keys.get(band), changedKeys.get(band));
+        }
+        HashSet<Long> unrelated = new HashSet<>(MinHash.bands(MinHash.signature("Local team wins the championship", 80), 20));
+        assertTrue(keys.stream().noneMatch(unrelated::contains));
+    }
+}
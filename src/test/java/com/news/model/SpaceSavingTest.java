@@ -0,0 +1,80 @@
+package com.news.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpaceSavingTest {
+
+    private static final int CAPACITY = 20;
+
+    @Test
+    void countsStayWithinRecordedError() {
+        Map<String, Double> truth = new HashMap<>();
+        SpaceSaving summary = feed(new Random(1), 20_000, truth);
+        assertBounds(summary, truth);
+    }
+
+    @Test
+    void mergeKeepsErrorBounds() {
+        Map<String, Double> truth = new HashMap<>();
+        SpaceSaving a = feed(new Random(2), 10_000, truth);
+        SpaceSaving b = feed(new Random(3), 15_000, truth);
+        a.merge(b, 1.0);
+        assertEquals(CAPACITY, a.size());
+        assertBounds(a, truth);
+    }
+
+    @Test
+    void mergeScalesOtherSummary() {
+        SpaceSaving a = new SpaceSaving(CAPACITY);
+        a.add("x", 1.0);
+        SpaceSaving b = new SpaceSaving(CAPACITY);
+        b.add("x", 2.0);
+        b.add("y", 4.0);
+        a.merge(b, 0.5);
+        assertEquals(2.0, a.counts().get("x"), 1e-9);
+        assertEquals(2.0, a.counts().get("y"), 1e-9);
+    }
+
+    @Test
+    void addReportsEvictedItem() {
+        SpaceSaving summary = new SpaceSaving(2);
+        assertNull(summary.add("a", 1.0));
+        assertNull(summary.add("b", 2.0));
+        assertNull(summary.add("b", 1.0));
+        assertEquals("a", summary.add("c", 1.0));
+        assertFalse(summary.contains("a"));
+        assertEquals(1.0, summary.counter("c").error(), 1e-9);
+    }
+
+    // Zipf-like weights over 500 items, so a few heavy hitters stand out of a long tail
+    private static SpaceSaving feed(Random random, int events, Map<String, Double> truth) {
+        SpaceSaving summary = new SpaceSaving(CAPACITY);
+        for (int i = 0; i < events; i++) {
+            String item = "item-" + (int) Math.floor(Math.pow(500, random.nextDouble()));
+            double weight = 0.5 + random.nextDouble();
+            summary.add(item, weight);
+            truth.merge(item, weight, Double::sum);
+        }
+        return summary;
+    }
+
+    private static void assertBounds(SpaceSaving summary, Map<String, Double> truth) {
+        double total = truth.values().stream().mapToDouble(Double::doubleValue).sum();
+        for (String item : summary.counts().keySet()) {
+            SpaceSaving.Counter c = summary.counter(item);
+            double actual = truth.getOrDefault(item, 0.0);
+            assertTrue(c.count() >= actual - 1e-6, item + " under-counted");
+            assertTrue(c.count() - c.error() <= actual + 1e-6, item + " error bound violated");
+            assertTrue(c.error() <= total / CAPACITY + 1e-6, item + " error above total / capacity");
+        }
+        truth.forEach((item, weight) -> {
+            if (weight > total / CAPACITY) assertTrue(summary.contains(item), "heavy hitter " + item + " missing");
+        });
+    }
+}
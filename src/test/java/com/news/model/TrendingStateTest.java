@@ -0,0 +1,144 @@
+package com.news.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrendingStateTest {
+
+    private static final long EPOCH = 1_700_000_000_000L;
+
+    @Test
+    void roundTripsCurrentFormat() throws IOException {
+        TrendingState state = state(4, 16);
+        for (int i = 0; i < 200; i++) {
+            state.add(EPOCH + i, 48.1 + (i % 3), 11.5, "article-" + (i % 7), "user-" + (i % 50), 1.0);
+        }
+
+        TrendingState read = state(4, 16);
+        read.readFrom(input(state), TrendingState.FORMAT_VERSION);
+
+        assertEquals(weights(state), weights(read));
+        assertEquals(state.decayTo(EPOCH + 1000), read.decayTo(EPOCH + 1000));
+        for (int i = 0; i < 7; i++) {
+            assertEquals(state.uniqueUsers("article-" + i).orElseThrow().estimate(),
+                    read.uniqueUsers("article-" + i).orElseThrow().estimate());
+        }
+    }
+
+    @Test
+    void readsVersionOneSnapshot() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeLong(EPOCH);
+            out.writeInt(2);
+            out.writeDouble(48.15);
+            out.writeDouble(11.55);
+            out.writeInt(2);
+            out.writeUTF("a");
+            out.writeDouble(3.0);
+            out.writeUTF("b");
+            out.writeDouble(1.5);
+            out.writeDouble(-33.85);
+            out.writeDouble(151.25);
+            out.writeInt(1);
+            out.writeUTF("c");
+            out.writeDouble(2.0);
+        }
+
+        TrendingState read = state(4, 16);
+        read.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), 1);
+
+        assertEquals(Map.of("48.15,11.55:a", 3.0, "48.15,11.55:b", 1.5, "-33.85,151.25:c", 2.0), weights(read));
+        assertEquals(1.0, read.decayTo(EPOCH));
+        assertEquals(0, read.uniqueUsers("a").orElseThrow().estimate());
+    }
+
+    @Test
+    void rejectsUnknownVersion() {
+        TrendingState state = state(4, 16);
+        assertThrows(IOException.class,
+                () -> state.readFrom(new DataInputStream(new ByteArrayInputStream(new byte[0])), 99));
+    }
+
+    @Test
+    void boundsCellsOnInsert() {
+        TrendingState state = state(4, 8);
+        for (int i = 0; i < 100; i++) state.add(EPOCH, i, 0, "article", "user", 1.0 + i);
+        int cells = 0;
+        for (TrendingState.Cell ignored : state.cells()) cells++;
+        assertTrue(cells <= 8, "expected at most 8 cells, got " + cells);
+        assertTrue(weights(state).containsKey("99.05,0.05:article"), "newest, heaviest cell kept");
+    }
+
+    @Test
+    void dropsUniqueUsersWhenArticleIsEvicted() {
+        TrendingState state = state(2, 16);
+        state.add(EPOCH, 1, 1, "a", "u1", 1.0);
+        state.add(EPOCH, 1, 1, "b", "u2", 5.0);
+        state.add(EPOCH, 1, 1, "c", "u3", 5.0);
+        assertTrue(state.uniqueUsers("a").isEmpty());
+        assertTrue(state.uniqueUsers("c").isPresent());
+
+        // still held by another cell, so eviction from one cell keeps its count
+        state.add(EPOCH, 5, 5, "b", "u4", 1.0);
+        state.add(EPOCH, 1, 1, "d", "u5", 20.0);
+        assertTrue(state.uniqueUsers("b").isPresent());
+        assertEquals(2, state.uniqueUsers("b").orElseThrow().estimate());
+    }
+
+    @Test
+    void mergeCombinesWeightsAndUsers() {
+        TrendingState a = state(4, 16);
+        a.add(EPOCH, 1, 1, "x", "u1", 1.0);
+        TrendingState b = state(4, 16);
+        b.add(EPOCH, 1, 1, "x", "u2", 2.0);
+        a.merge(b);
+        assertEquals(Map.of("1.05,1.05:x", 3.0), weights(a));
+        assertEquals(2, a.uniqueUsers("x").orElseThrow().estimate());
+    }
+
+    @Test
+    void fullStateFitsMaxSerializedBytes() throws IOException {
+        TrendingState state = state(4, 8);
+        String padding = "x".repeat(40);
+        for (int i = 0; i < 2_000; i++) {
+            state.add(EPOCH, i % 8, 0, padding + "-article-" + (i % 64), "user-" + i, 1.0 + i);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            state.writeTo(out);
+        }
+        assertTrue(bytes.size() <= TrendingState.maxSerializedBytes(8, 4, 10, 60),
+                bytes.size() + " bytes exceed the bound");
+    }
+
+    private static TrendingState state(int topK, int maxCells) {
+        return new TrendingState(0.1, topK, maxCells, 10, EPOCH);
+    }
+
+    private static DataInputStream input(TrendingState state) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            state.writeTo(out);
+        }
+        return new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+    }
+
+    private static Map<String, Double> weights(TrendingState state) {
+        Map<String, Double> weights = new HashMap<>();
+        for (TrendingState.Cell cell : state.cells()) {
+            cell.articles().counts().forEach((id, w) -> weights.put(
+                    String.format("%.2f,%.2f:%s", cell.latitude(), cell.longitude(), id), w));
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,118 @@
+package com.news.repository;
+
+import com.news.dto.TrendingEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrendingEventLogTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void replaysAppendedEvents() throws IOException {
+        TrendingEventLog log = open(1 << 16);
+        log.append(event("a1", "u1", "view", 1_000));
+        TrendingEventLog.Position afterFirst = log.append(event("a2", null, "click", 2_000));
+        log.append(event("a3", "u3", "share", 3_000));
+
+        List<TrendingEvent> all = replay(log, TrendingEventLog.Position.START);
+        assertEquals(3, all.size());
+        TrendingEvent second = all.get(1);
+        assertEquals("a2", second.getArticleId());
+        assertNull(second.getUserId());
+        assertEquals("click", second.getType());
+        assertEquals(12.5, second.getLatitude());
+        assertEquals(-7.25, second.getLongitude());
+        assertEquals(Instant.ofEpochMilli(2_000), second.getTimestamp());
+        assertEquals("other", all.get(2).getType());
+
+        List<TrendingEvent> tail = replay(log, afterFirst);
+        assertEquals(List.of("a3"), tail.stream().map(TrendingEvent::getArticleId).toList());
+    }
+
+    @Test
+    void openTruncatesTornRecord() throws IOException {
+        TrendingEventLog log = open(1 << 16);
+        log.append(event("a1", "u1", "view", 1_000));
+        TrendingEventLog.Position end = log.append(event("a2", "u2", "view", 2_000));
+        log.flush();
+
+        // a header whose payload never made it to disk
+        try (FileChannel channel = FileChannel.open(segment(0), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(8).putInt(60).putInt(0xdeadbeef).flip(), end.offset());
+        }
+
+        TrendingEventLog reopened = open(1 << 16);
+        assertEquals(end, reopened.position());
+        reopened.append(event("a3", "u3", "click", 3_000));
+        assertEquals(List.of("a1", "a2", "a3"),
+                replay(reopened, TrendingEventLog.Position.START).stream().map(TrendingEvent::getArticleId).toList());
+    }
+
+    @Test
+    void rollsSegmentsAndDeletesOldOnes() throws IOException {
+        TrendingEventLog log = open(256);
+        for (int i = 0; i < 20; i++) log.append(event("article-" + i, "user-" + i, "view", i));
+        TrendingEventLog.Position position = log.position();
+        assertTrue(position.segment() > 0, "expected the log to roll over");
+        assertEquals(20, replay(log, TrendingEventLog.Position.START).size());
+
+        log.deleteBefore(position);
+        assertEquals(1, segmentCount());
+        List<TrendingEvent> remaining = replay(log, TrendingEventLog.Position.START);
+        assertFalse(remaining.isEmpty());
+        assertEquals("article-19", remaining.get(remaining.size() - 1).getArticleId());
+
+        log.append(event("article-20", "user-20", "view", 20));
+        log.flush();
+        assertEquals(List.of("article-20"),
+                replay(log, position).stream().map(TrendingEvent::getArticleId).toList());
+    }
+
+    private TrendingEventLog open(int segmentBytes) throws IOException {
+        TrendingEventLog log = new TrendingEventLog(dir, segmentBytes);
+        log.open();
+        return log;
+    }
+
+    private static List<TrendingEvent> replay(TrendingEventLog log, TrendingEventLog.Position from) throws IOException {
+        List<TrendingEvent> events = new ArrayList<>();
+        log.replay(from, events::add);
+        return events;
+    }
+
+    private Path segment(long id) {
+        return dir.resolve(String.format("%020d.log", id));
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.count();
+        }
+    }
+
+    private static TrendingEvent event(String articleId, String userId, String type, long millis) {
+        return TrendingEvent.builder()
+                .articleId(articleId)
+                .userId(userId)
+                .type(type)
+                .latitude(12.5)
+                .longitude(-7.25)
+                .timestamp(Instant.ofEpochMilli(millis))
+                .build();
+    }
+}
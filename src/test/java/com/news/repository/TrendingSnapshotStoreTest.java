@@ -0,0 +1,71 @@
+package com.news.repository;
+
+import com.news.model.TrendingState;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrendingSnapshotStoreTest {
+
+    private static final long EPOCH = 1_700_000_000_000L;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void roundTripsStateAndPosition() throws IOException {
+        TrendingSnapshotStore store = new TrendingSnapshotStore(dir);
+        TrendingState state = state();
+        state.add(EPOCH, 1, 1, "a", "u1", 2.0);
+        store.save(state, new TrendingEventLog.Position(3, 120));
+
+        TrendingState read = state();
+        assertEquals(Optional.of(new TrendingEventLog.Position(3, 120)), store.load(read));
+        assertEquals(1, read.size());
+        assertFalse(Files.exists(dir.resolve("trending.snapshot.tmp")));
+    }
+
+    @Test
+    void missingSnapshotIsEmpty() throws IOException {
+        assertEquals(Optional.empty(), new TrendingSnapshotStore(dir).load(state()));
+    }
+
+    @Test
+    void truncatedSnapshotIsMovedAside() throws IOException {
+        TrendingSnapshotStore store = new TrendingSnapshotStore(dir);
+        TrendingState state = state();
+        for (int i = 0; i < 10; i++) state.add(EPOCH, i, i, "article-" + i, "user-" + i, 1.0);
+        store.save(state, new TrendingEventLog.Position(1, 64));
+        Path file = dir.resolve("trending.snapshot");
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length / 2));
+
+        assertEquals(Optional.empty(), store.load(state()));
+        assertFalse(Files.exists(file));
+        try (Stream<Path> files = Files.list(dir)) {
+            assertTrue(files.anyMatch(p -> p.getFileName().toString().startsWith("trending.snapshot.corrupt-")));
+        }
+        // the next snapshot is written normally
+        store.save(state, new TrendingEventLog.Position(2, 0));
+        assertEquals(Optional.of(new TrendingEventLog.Position(2, 0)), store.load(state()));
+    }
+
+    @Test
+    void unrecognizedSnapshotIsMovedAside() throws IOException {
+        Files.write(dir.resolve("trending.snapshot"), new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+        assertEquals(Optional.empty(), new TrendingSnapshotStore(dir).load(state()));
+        assertFalse(Files.exists(dir.resolve("trending.snapshot")));
+    }
+
+    private static TrendingState state() {
+        return new TrendingState(0.1, 8, 64, 10, EPOCH);
+    }
+}
@@ -0,0 +1,108 @@
+package com.news.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.news.model.MinHash;
+import com.news.model.NewsArticle;
+import com.news.repository.InMemoryNewsArticleRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DuplicateDetectorTest {
+
+    private static final String DESCRIPTION = "The central bank raised interest rates by a quarter point on Wednesday, "
+            + "its third increase this year, citing persistent inflation in services and housing.";
+
+    private final InMemoryNewsArticleRepository repo =
+            new InMemoryNewsArticleRepository(new ObjectMapper(), new ByteArrayResource(new byte[0]));
+    private final DuplicateDetector detector = new DuplicateDetector(repo, true, 80, 20, 0.6, 64);
+
+    @Test
+    void firstArticleHeadsItsClusterAndKeepsBandKeys() {
+        NewsArticle head = load("a", "Central bank raises rates again", DESCRIPTION);
+
+        assertNull(head.getClusterId());
+        assertNotNull(head.getMinhash());
+        assertEquals(MinHash.bands(head.getMinhash(), 20), head.getLshBands());
+    }
+
+    @Test
+    void nearDuplicateJoinsTheHeadsClusterWithoutBandKeys() {
+        NewsArticle head = load("a", "Central bank raises rates again", DESCRIPTION);
+        NewsArticle copy = article("b", "Central bank raises rates once again", DESCRIPTION);
+
+        assertTrue(detector.assignCluster(copy));
+        assertEquals(head.getId(), copy.getClusterId());
+        assertNotNull(copy.getMinhash());
+        assertNull(copy.getLshBands());
+    }
+
+    @Test
+    void laterCopiesAreOnlyMatchedThroughTheHead() {
+        load("a", "Central bank raises rates again", DESCRIPTION);
+        NewsArticle copy = article("b", "Central bank raises rates once again", DESCRIPTION);
+        detector.assignCluster(copy);
+        repo.save(copy);
+
+        List<NewsArticle> candidates = repo.findDuplicateCandidates(MinHash.bands(copy.getMinhash(), 20), Limit.of(64));
+        assertEquals(List.of("a"), candidates.stream().map(NewsArticle::getId).toList());
+
+        NewsArticle third = article("c", "Central bank raises rates, again", DESCRIPTION);
+        assertTrue(detector.assignCluster(third));
+        assertEquals("a", third.getClusterId());
+    }
+
+    @Test
+    void unrelatedArticleStartsItsOwnCluster() {
+        load("a", "Central bank raises rates again", DESCRIPTION);
+        NewsArticle other = article("b", "Local team wins the championship",
+                "A dramatic overtime goal settled the final in front of a record crowd.");
+
+        assertFalse(detector.assignCluster(other));
+        assertNotNull(other.getLshBands());
+    }
+
+    @Test
+    void articlesWithoutWordsAreNeverClustered() {
+        NewsArticle first = article("a", "", "-");
+        assertFalse(detector.assignCluster(first));
+        assertNull(first.getMinhash());
+        assertNull(first.getLshBands());
+        repo.save(first);
+
+        NewsArticle second = article("b", null, null);
+        assertFalse(detector.assignCluster(second));
+        assertNull(second.getLshBands());
+    }
+
+    @Test
+    void disabledDetectorClearsFingerprints() {
+        DuplicateDetector disabled = new DuplicateDetector(repo, false, 80, 20, 0.6, 64);
+        NewsArticle a = article("a", "Central bank raises rates again", DESCRIPTION);
+        a.setLshBands(List.of(1L));
+
+        assertFalse(disabled.assignCluster(a));
+        assertNull(a.getMinhash());
+        assertNull(a.getLshBands());
+    }
+
+    @Test
+    void rejectsBandsThatDoNotDivideTheSignature() {
+        assertThrows(IllegalArgumentException.class, () -> new DuplicateDetector(repo, true, 80, 30, 0.6, 64));
+    }
+
+    private NewsArticle load(String id, String title, String description) {
+        NewsArticle a = article(id, title, description);
+        assertFalse(detector.assignCluster(a));
+        repo.save(a);
+        return a;
+    }
+
+    private static NewsArticle article(String id, String title, String description) {
+        return NewsArticle.builder().id(id).title(title).description(description).build();
+    }
+}
@@ -0,0 +1,100 @@
+package com.news.service;
+
+import com.news.exception.DeadlineExceededException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FanOutExecutorTest {
+
+    private final SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("fan-out-test-");
+
+    @AfterEach
+    void close() {
+        executor.close();
+    }
+
+    @Test
+    void returnsResultsInTaskOrder() {
+        FanOutExecutor fanOut = new FanOutExecutor(executor, 5_000);
+        List<Callable<String>> tasks = List.of(
+                () -> sleepThen(150, "slow"),
+                () -> "fast",
+                () -> sleepThen(50, "medium"));
+        assertEquals(List.of("slow", "fast", "medium"), fanOut.invokeAll(tasks));
+    }
+
+    @Test
+    void firstFailureCancelsSiblings() throws InterruptedException {
+        FanOutExecutor fanOut = new FanOutExecutor(executor, 5_000);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        Callable<String> straggler = () -> {
+            started.countDown();
+            try {
+                Thread.sleep(10_000);
+                return "late";
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+        };
+        // fail only once the straggler runs, otherwise it is cancelled before it can be interrupted
+        Callable<String> failing = () -> {
+            started.await();
+            throw new IllegalArgumentException("boom");
+        };
+
+        long start = System.nanoTime();
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> fanOut.invokeAll(List.of(straggler, failing)));
+        assertEquals("boom", ex.getMessage());
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5), "did not wait for the straggler");
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS), "straggler was not cancelled");
+    }
+
+    @Test
+    void deadlineRaisesDeadlineExceeded() throws InterruptedException {
+        FanOutExecutor fanOut = new FanOutExecutor(executor, 100);
+        CountDownLatch interrupted = new CountDownLatch(2);
+        Callable<String> slow = () -> {
+            try {
+                return sleepThen(10_000, "late");
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+        };
+
+        DeadlineExceededException ex = assertThrows(DeadlineExceededException.class,
+                () -> fanOut.invokeBatch(List.of(slow, slow, () -> "done")));
+        assertTrue(ex.getMessage().contains("2 of 3"), ex.getMessage());
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS), "pending tasks were not cancelled");
+    }
+
+    @Test
+    void wrapsCheckedExceptions() {
+        FanOutExecutor fanOut = new FanOutExecutor(executor, 5_000);
+        Callable<String> failing = () -> {
+            throw new IOException("io");
+        };
+        IllegalStateException inline = assertThrows(IllegalStateException.class, () -> fanOut.invokeAll(List.of(failing)));
+        assertInstanceOf(IOException.class, inline.getCause());
+        IllegalStateException parallel = assertThrows(IllegalStateException.class,
+                () -> fanOut.invokeAll(List.of(() -> "ok", failing)));
+        assertInstanceOf(IOException.class, parallel.getCause());
+    }
+
+    private static String sleepThen(long millis, String value) throws InterruptedException {
+        Thread.sleep(millis);
+        return value;
+    }
+}
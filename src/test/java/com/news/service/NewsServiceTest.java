@@ -0,0 +1,59 @@
+package com.news.service;
+
+import com.news.model.NewsArticle;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "app.trending.log.dir=target/test-trending/service",
+        "app.perf.llm.latencyMs=0",
+        "app.perf.llm.jitterMs=0"
+})
+@ActiveProfiles("perf")
+class NewsServiceTest {
+
+    private static final String CATEGORY = "collapse-test";
+    private static final String RATES = "The central bank raised interest rates by a quarter point on Wednesday, "
+            + "its third increase this year, citing persistent inflation in services and housing.";
+    private static final String FINAL = "A dramatic overtime goal settled the championship final in front of a "
+            + "record crowd, giving the home side its first title in two decades.";
+    private static final String STORM = "Heavy rain and winds of up to 120 km/h are expected along the coast "
+            + "through Friday, and schools in three districts will stay closed.";
+
+    @Autowired
+    private NewsService newsService;
+
+    @Test
+    void collapseKeepsTheNewestArticleOfEachStoryInFeedOrder() {
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        int duplicates = newsService.loadArticles(List.of(
+                article("rates-1", "Central bank raises rates again", RATES, now.minusHours(5)),
+                article("final-1", "Home side wins the championship", FINAL, now.minusHours(4)),
+                article("rates-2", "Central bank raises rates once again", RATES, now.minusHours(3)),
+                article("rates-3", "Central bank raises rates, again", RATES, now.minusHours(2)),
+                article("storm-1", "Storm warning for the coast", STORM, now.minusHours(1)),
+                article("final-2", "Home side wins the championship final", FINAL, now)));
+        assertEquals(3, duplicates);
+
+        assertEquals(List.of("final-2", "storm-1", "rates-3", "rates-2", "final-1"),
+                ids(newsService.byCategory(CATEGORY, 0, 10, false).getArticles()));
+        assertEquals(List.of("final-2", "storm-1", "rates-3"),
+                ids(newsService.byCategory(CATEGORY, 0, 10, true).getArticles()));
+    }
+
+    private static NewsArticle article(String id, String title, String description, LocalDateTime published) {
+        return NewsArticle.builder().id(id).title(title).description(description)
+                .category(List.of(CATEGORY)).sourceName("test").publicationDate(published).build();
+    }
+
+    private static List<String> ids(List<NewsArticle> articles) {
+        return articles.stream().map(NewsArticle::getId).toList();
+    }
+}